@@ -0,0 +1,99 @@
+package main.java.org.example;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scoring a batch of random game positions: MinimaxAI.evaluate() one board at a time, and
+ * BatchEvaluator in its scalar and Vector API versions. Scores are per board. The fork runs
+ * with the incubator module added; setUp checks that all three agree on every board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@OperationsPerInvocation(BatchEvaluatorBenchmark.BOARDS)
+public class BatchEvaluatorBenchmark {
+    static final int BOARDS = 4096;
+
+    @Param({ "3", "4", "5" })
+    public int size;
+
+    private MinimaxAI minimax;
+    private BatchEvaluator scalar;
+    private BatchEvaluator vector;
+    private final String[][][] strings = new String[BOARDS][][];
+    private final long[] ai = new long[BOARDS];
+    private final long[] human = new long[BOARDS];
+    private final int[] scores = new int[BOARDS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int winLength = GameSettings.defaultWinLength(size);
+        minimax = new MinimaxAI(BenchmarkPosition.AI, BenchmarkPosition.HUMAN, size);
+        scalar = BatchEvaluator.of(size, winLength);
+        vector = new VectorBatchEvaluator(size, winLength);
+
+        // Positions of random games stopped after a random number of moves, about a third of them won
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < BOARDS; i++) {
+            GameState game = new GameState(size, size, winLength, GameState.X);
+            int moves = random.nextInt(size * size + 1);
+            while (game.turns() < moves && !game.isOver()) {
+                int cell = random.nextInt(size * size);
+                if (game.isEmpty(cell)) game.play(cell);
+            }
+            strings[i] = new String[size][size];
+            for (int cell = 0; cell < size * size; cell++) {
+                strings[i][cell / size][cell % size] = GameState.symbol(game.get(cell));
+                if (game.get(cell) == GameState.player(BenchmarkPosition.AI)) ai[i] |= 1L << cell;
+                else if (game.get(cell) != GameState.EMPTY) human[i] |= 1L << cell;
+            }
+        }
+
+        int[] scalarScores = new int[BOARDS];
+        scalar.evaluate(ai, human, BOARDS, scalarScores);
+        vector.evaluate(ai, human, BOARDS, scores);
+        for (int i = 0; i < BOARDS; i++) {
+            int expected = minimax.evaluate(strings[i]);
+            if (scalarScores[i] != expected || scores[i] != expected)
+                throw new IllegalStateException("Board " + i + ": evaluate " + expected + ", scalar batch "
+                        + scalarScores[i] + ", vector batch " + scores[i]);
+        }
+    }
+
+    @Benchmark
+    public int evaluate() {
+        int sum = 0;
+        for (String[][] board : strings) sum += minimax.evaluate(board);
+        return sum;
+    }
+
+    @Benchmark
+    public int[] scalarBatch() {
+        scalar.evaluate(ai, human, BOARDS, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public int[] vectorBatch() {
+        vector.evaluate(ai, human, BOARDS, scores);
+        return scores;
+    }
+}
@@ -0,0 +1,82 @@
+package main.java.org.example;
+
+/**
+ * Fixed corpus of benchmark positions. Rows are separated by '|', '.' is an empty cell.
+ * The AI plays O and the human X, as in a default game, and the side to move follows
+ * from the stone count (X moves first). Keep these unchanged so that results stay
+ * comparable across commits; add new positions instead of editing existing ones.
+ */
+public enum BenchmarkPosition {
+    EMPTY_3X3("...|...|...", Integer.MAX_VALUE),
+    MID_3X3("X..|.O.|..X", Integer.MAX_VALUE),
+    EMPTY_4X4("....|....|....|....", Integer.MAX_VALUE),
+    MID_4X4("X...|.O..|..X.|....", Integer.MAX_VALUE),
+    EMPTY_5X5(".....|.....|.....|.....|.....", 6),
+    MID_5X5("X....|.O...|..X..|.....|.....", 6);
+
+    public static final String AI = "O";
+    public static final String HUMAN = "X";
+
+    private final String layout;
+    // Depth of the "Hard" search benchmarked on this position (full search where that is feasible)
+    public final int searchDepth;
+    public final int size;
+
+    BenchmarkPosition(String layout, int searchDepth) {
+        this.layout = layout;
+        this.searchDepth = searchDepth;
+        this.size = layout.indexOf('|');
+    }
+
+    public int winLength() {
+        return GameSettings.defaultWinLength(size);
+    }
+
+    // Fresh board in the UI representation ("X", "O" or "")
+    public String[][] strings() {
+        String[] rows = layout.split("\\|");
+        String[][] board = new String[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                char c = rows[row].charAt(col);
+                board[row][col] = c == '.' ? "" : String.valueOf(c);
+            }
+        }
+        return board;
+    }
+
+    public String toMove() {
+        int stones = layout.replace(".", "").replace("|", "").length();
+        return stones % 2 == 0 ? HUMAN : AI;
+    }
+
+    public BitBoard bitBoard() {
+        return BitBoard.fromStrings(strings(), winLength(), toMove());
+    }
+
+    // Same position for the m,n,k engines, replayed move by move (X first)
+    public MnkBoard mnkBoard() {
+        return MnkBoard.of(gameState());
+    }
+
+    // Same position as a game in progress, replayed move by move (X first)
+    public GameState gameState() {
+        String[][] board = strings();
+        GameState game = new GameState(size, size, winLength(), GameState.X);
+        int[] next = new int[2];
+        for (int turn = 0; ; turn++) {
+            String symbol = turn % 2 == 0 ? HUMAN : AI;
+            int cell = next[turn % 2];
+            while (cell < size * size && !board[cell / size][cell % size].equals(symbol)) cell++;
+            if (cell == size * size) break;
+            game.play(cell);
+            next[turn % 2] = cell + 1;
+        }
+        return game;
+    }
+
+    // Same position with the AI to move, for the search benchmarks
+    public BitBoard searchBoard() {
+        return BitBoard.fromStrings(strings(), winLength(), AI);
+    }
+}
@@ -0,0 +1,79 @@
+package main.java.org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scanning a game log of a million random games on the given board through the memory
+ * mapping, tallying results and moves. Reports the time per full scan (divide by records
+ * for the per-record cost).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameLogBenchmark {
+    private static final int RECORDS = 1_000_000;
+
+    @Param({ "3", "9" })
+    public int size;
+
+    private Path file;
+    private GameLogReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("games", ".bin");
+        Files.delete(file);
+        SplittableRandom random = new SplittableRandom(1);
+        int k = GameSettings.defaultWinLength(size);
+        GameState game = new GameState(size, size, k, GameState.X);
+        int[] millis = new int[size * size];
+        try (GameLog log = GameLog.open(file)) {
+            for (int i = 0; i < RECORDS; i++) {
+                game.reset(GameState.X);
+                while (!game.isOver()) {
+                    int cell = random.nextInt(size * size);
+                    if (game.play(cell)) millis[game.turns() - 1] = random.nextInt(3000);
+                }
+                log.append(GameRecord.of(game, "Human", "Hard", 1_700_000_000L + i, millis));
+            }
+        }
+        reader = GameLogReader.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long scan() throws IOException {
+        long[] tally = new long[5]; // X wins, O wins, ties, unfinished, moves
+        reader.scan(entry -> {
+            tally[entry.result()]++;
+            tally[4] += entry.moveCount();
+        });
+        return tally[0] + tally[4];
+    }
+}
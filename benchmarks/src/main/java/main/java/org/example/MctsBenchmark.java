@@ -0,0 +1,62 @@
+package main.java.org.example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MctsAI running a fixed number of iterations from a fresh tree, single-threaded so that
+ * playouts/s is comparable across machines. Reports ops/s plus a playouts column.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MctsBenchmark {
+    private static final int ITERATIONS = 10_000;
+
+    @Param({ "EMPTY_3X3", "MID_4X4", "MID_5X5" })
+    public BenchmarkPosition position;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class PlayoutCounter {
+        public long playouts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            playouts = 0;
+        }
+    }
+
+    private MctsAI ai;
+    private MnkBoard board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ai = new MctsAI(position.size, position.size, position.winLength(), 1);
+        board = position.mnkBoard();
+    }
+
+    @Benchmark
+    public int bestCell(PlayoutCounter counter) {
+        ai.reset();
+        int cell = ai.bestCell(board, Long.MAX_VALUE, ITERATIONS);
+        counter.playouts += ai.getPlayouts();
+        return cell;
+    }
+}
@@ -0,0 +1,45 @@
+package main.java.org.example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full-depth MinimaxAI.findBestMove, the original Hard engine. Limited to 3x3: the
+ * unpruned tree of a 4x4 or 5x5 board cannot be searched in benchmark time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinimaxBenchmark {
+    @Param({ "EMPTY_3X3", "MID_3X3" })
+    public BenchmarkPosition position;
+
+    private MinimaxAI minimax;
+    private String[][] strings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        minimax = new MinimaxAI(BenchmarkPosition.AI, BenchmarkPosition.HUMAN, position.size);
+        strings = position.strings();
+    }
+
+    @Benchmark
+    public int[] findBestMove() {
+        return minimax.findBestMove(strings);
+    }
+}
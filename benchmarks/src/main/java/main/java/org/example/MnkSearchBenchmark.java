@@ -0,0 +1,56 @@
+package main.java.org.example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MnkAI on a fixed 15x15 Gomoku (k = 5) opening, searched to a fixed depth from a cold
+ * table. Moves are given as cell indices, alternating X and O.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MnkSearchBenchmark {
+    static final int[] OPENING = { 112, 113, 97, 127, 98, 82, 128, 96, 111, 126 };
+
+    @Param({ "3", "5" })
+    public int depth;
+
+    private MnkAI ai;
+    private MnkBoard board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameState game = new GameState(15, 15, 5, GameState.X);
+        for (int cell : OPENING) game.play(cell);
+        ai = new MnkAI(15, 15, 5);
+        board = MnkBoard.of(game);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        TranspositionTable.shared(15, 15, 5).clear();
+    }
+
+    @Benchmark
+    public int bestCell(NodeCounter counter) {
+        int cell = ai.bestCell(board, depth, Long.MAX_VALUE);
+        counter.nodes += ai.getNodeCount();
+        return cell;
+    }
+}
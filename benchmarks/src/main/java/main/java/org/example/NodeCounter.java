@@ -0,0 +1,19 @@
+package main.java.org.example;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Extra JMH result column: search nodes per second, next to the ops/s of the benchmark itself
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class NodeCounter {
+    public long nodes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        nodes = 0;
+    }
+}
@@ -0,0 +1,83 @@
+package main.java.org.example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * findBestMove over the benchmark corpus. Every invocation starts from a cleared
+ * transposition table so that repeated calls measure a cold search, the way the first
+ * move of a game is played. The opening book is bypassed. Reports ops/s plus nodes/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({ "EMPTY_3X3", "MID_3X3", "EMPTY_4X4", "MID_4X4", "EMPTY_5X5", "MID_5X5" })
+    public BenchmarkPosition position;
+
+    private BitboardAI ai;
+    private BitboardAI threatAi;
+    private MinimaxAI minimax;
+    private BitBoard board;
+    private String[][] strings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ai = new BitboardAI(BenchmarkPosition.AI, BenchmarkPosition.HUMAN, position.size);
+        threatAi = new BitboardAI(BenchmarkPosition.AI, BenchmarkPosition.HUMAN, position.size);
+        threatAi.setEvaluator(ThreatEvaluator.INSTANCE);
+        minimax = new MinimaxAI(BenchmarkPosition.AI, BenchmarkPosition.HUMAN, position.size);
+        board = position.searchBoard();
+        strings = position.strings();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        ai.getTranspositionTable().clear();
+    }
+
+    // Hard: full search on 3x3/4x4, the corpus depth on 5x5
+    @Benchmark
+    public int hard(NodeCounter counter) {
+        int cell = ai.bestCellWithDepthLimit(board, position.searchDepth);
+        counter.nodes += ai.getNodeCount();
+        return cell;
+    }
+
+    // Medium: the depth-2 search the game uses
+    @Benchmark
+    public int medium(NodeCounter counter) {
+        int cell = ai.bestCellWithDepthLimit(board, 2);
+        counter.nodes += ai.getNodeCount();
+        return cell;
+    }
+
+    // Medium as played on 4x4 and 5x5: depth 2 with the threat-counting evaluator
+    @Benchmark
+    public int mediumThreat(NodeCounter counter) {
+        int cell = threatAi.bestCellWithDepthLimit(board, 2);
+        counter.nodes += threatAi.getNodeCount();
+        return cell;
+    }
+
+    // Reference engine at the same depth as medium
+    @Benchmark
+    public int[] minimaxMedium() {
+        return minimax.findBestMoveWithDepthLimit(strings, 2);
+    }
+}
@@ -0,0 +1,57 @@
+package main.java.org.example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of search statistics: the same AiPlayer moves with no listener (the default, where
+ * only the engines' own counters run) and with SearchMetrics attached. Medium is the shortest
+ * search the game runs, so the fixed cost per search (clocks, allocation counters, the stats
+ * record) weighs most there; the counters inside the search show up in SearchBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchStatsBenchmark {
+    @Param({ "MID_3X3", "MID_4X4", "MID_5X5" })
+    public BenchmarkPosition position;
+
+    @Param({ "off", "on" })
+    public String stats;
+
+    private AiPlayer medium;
+    private GameState game;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = position.gameState();
+        GameSettings settings = new GameSettings(position.size, position.size, position.winLength(), "Medium", BenchmarkPosition.AI);
+        medium = new AiPlayer(settings, BenchmarkPosition.AI, 60_000, 1_000, 1);
+        if (stats.equals("on")) medium.setSearchListener(new SearchMetrics());
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        TranspositionTable.shared(position.size, position.winLength()).clear();
+    }
+
+    @Benchmark
+    public int medium() {
+        return medium.chooseMove(game);
+    }
+}
@@ -0,0 +1,81 @@
+package main.java.org.example;
+
+import java.util.Arrays;
+
+/**
+ * Prints the wall-time speedup of ParallelSearch over the sequential engine for each
+ * board size, mode and thread count, to help size thread pools. Every run starts from a
+ * cleared table; each figure is the best of RUNS runs after one warm-up run.
+ *
+ *   java -cp benchmarks/target/benchmarks.jar main.java.org.example.SpeedupReport [maxThreads]
+ */
+public class SpeedupReport {
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        System.out.printf("cores=%d%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-22s %-10s %7s %10s %12s %8s %6s%n", "position", "mode", "threads", "ms", "nodes", "speedup", "same");
+
+        report("4x4 empty (full)", emptyBoard(4), Integer.MAX_VALUE, maxThreads);
+        report("4x4 1 stone (full)", withStones(4, 5), Integer.MAX_VALUE, maxThreads);
+        report("5x5 empty (depth 8)", emptyBoard(5), 8, maxThreads);
+        report("5x5 2 stones (depth 8)", withStones(5, 12, 6), 8, maxThreads);
+    }
+
+    private static void report(String name, String[][] board, int depthLimit, int maxThreads) {
+        int size = board.length;
+        int winLength = GameSettings.defaultWinLength(size);
+
+        BitboardAI sequential = new BitboardAI("X", "O", size);
+        int[] expected = null;
+        double baseMillis = Double.MAX_VALUE;
+        for (int run = 0; run <= RUNS; run++) {
+            TranspositionTable.shared(size, winLength).clear();
+            long start = System.nanoTime();
+            expected = sequential.findBestMoveWithDepthLimit(copy(board), depthLimit);
+            if (run > 0) baseMillis = Math.min(baseMillis, (System.nanoTime() - start) / 1e6);
+        }
+        System.out.printf("%-22s %-10s %7d %10.1f %12d %8.2f %6s%n", name, "SEQUENTIAL", 1, baseMillis,
+                sequential.getNodeCount(), 1.0, "-");
+
+        for (ParallelSearch.Mode mode : ParallelSearch.Mode.values()) {
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                ParallelSearch parallel = new ParallelSearch("X", "O", size, threads, mode);
+                boolean same = true;
+                double millis = Double.MAX_VALUE;
+                for (int run = 0; run <= RUNS; run++) {
+                    TranspositionTable.shared(size, winLength).clear();
+                    long start = System.nanoTime();
+                    int[] move = parallel.findBestMoveWithDepthLimit(copy(board), depthLimit);
+                    if (run > 0) millis = Math.min(millis, (System.nanoTime() - start) / 1e6);
+                    same &= Arrays.equals(move, expected);
+                }
+                parallel.shutdown();
+                System.out.printf("%-22s %-10s %7d %10.1f %12d %8.2f %6s%n", name, mode, threads, millis,
+                        parallel.getNodeCount(), baseMillis / millis, same ? "yes" : "NO");
+            }
+        }
+    }
+
+    private static String[][] emptyBoard(int size) {
+        String[][] board = new String[size][size];
+        for (String[] row : board) Arrays.fill(row, "");
+        return board;
+    }
+
+    // Board with O (the human) and X alternately on the given cells, X (the AI) to move
+    private static String[][] withStones(int size, int... cells) {
+        String[][] board = emptyBoard(size);
+        for (int i = 0; i < cells.length; i++) {
+            board[cells[i] / size][cells[i] % size] = i % 2 == 0 ? "O" : "X";
+        }
+        return board;
+    }
+
+    private static String[][] copy(String[][] board) {
+        String[][] copy = new String[board.length][];
+        for (int i = 0; i < board.length; i++) copy[i] = board[i].clone();
+        return copy;
+    }
+}
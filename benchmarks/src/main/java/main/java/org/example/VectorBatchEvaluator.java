@@ -0,0 +1,44 @@
+package main.java.org.example;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * BatchEvaluator on the Vector API: each lane holds one board, so every win line is tested
+ * against as many boards at once as the CPU's widest vectors hold longs (4 with AVX2, 8 with
+ * AVX-512). Lives in the benchmarks module, which compiles with jdk.incubator.vector; the JVM
+ * that loads it needs --add-modules jdk.incubator.vector too.
+ */
+final class VectorBatchEvaluator extends BatchEvaluator {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    VectorBatchEvaluator(int size, int winLength) {
+        super(size, winLength);
+    }
+
+    @Override
+    public void evaluate(long[] ai, long[] opponent, int count, int[] scores) {
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            LongVector aiStones = LongVector.fromArray(SPECIES, ai, i);
+            LongVector opponentStones = LongVector.fromArray(SPECIES, opponent, i);
+            VectorMask<Long> aiWon = SPECIES.maskAll(false);
+            VectorMask<Long> opponentWon = aiWon;
+            for (long line : lines) {
+                aiWon = aiWon.or(aiStones.and(line).eq(line));
+                opponentWon = opponentWon.or(opponentStones.and(line).eq(line));
+            }
+            long aiBits = aiWon.toLong();
+            long opponentBits = opponentWon.toLong();
+            for (int lane = 0; lane < lanes; lane++) {
+                scores[i + lane] = (aiBits >>> lane & 1) != 0 ? WIN_SCORE
+                        : (opponentBits >>> lane & 1) != 0 ? -WIN_SCORE : 0;
+            }
+        }
+        // The boards left over after the last full vector
+        for (; i < count; i++) scores[i] = score(ai[i], opponent[i]);
+    }
+}
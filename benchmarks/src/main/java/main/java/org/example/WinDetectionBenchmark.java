@@ -0,0 +1,121 @@
+package main.java.org.example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The per-node checks of the search: MinimaxAI.evaluate() and isMovesLeft(), the full-board
+ * checkWinner scan the UI used to run after every move, and their bitboard counterparts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinDetectionBenchmark {
+    @Param({ "EMPTY_3X3", "MID_3X3", "EMPTY_4X4", "MID_4X4", "EMPTY_5X5", "MID_5X5" })
+    public BenchmarkPosition position;
+
+    private MinimaxAI minimax;
+    private String[][] strings;
+    private BitBoard board;
+    private int emptyCell;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        minimax = new MinimaxAI(BenchmarkPosition.AI, BenchmarkPosition.HUMAN, position.size);
+        strings = position.strings();
+        board = position.bitBoard();
+        emptyCell = Long.numberOfTrailingZeros(board.emptyCells());
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return minimax.evaluate(strings);
+    }
+
+    @Benchmark
+    public boolean isMovesLeft() {
+        return minimax.isMovesLeft(strings);
+    }
+
+    @Benchmark
+    public String checkWinner() {
+        return checkWinner(strings, position.winLength());
+    }
+
+    // Incremental counterpart of evaluate(): both win flags read from the line counters
+    @Benchmark
+    public boolean hasWon() {
+        return board.hasWon(BitBoard.X) | board.hasWon(BitBoard.O);
+    }
+
+    @Benchmark
+    public boolean isFull() {
+        return board.isFull();
+    }
+
+    // Heuristic score at a depth cutoff, read from the same counters
+    @Benchmark
+    public int threatEvaluate() {
+        return ThreatEvaluator.INSTANCE.evaluate(board.counters, board.sideToMove());
+    }
+
+    // What the search does per node: play a move, test for the win, take it back
+    @Benchmark
+    public boolean makeCheckUnmake() {
+        int side = board.sideToMove();
+        board.make(emptyCell);
+        boolean won = board.hasWon(side);
+        board.unmake(emptyCell);
+        return won;
+    }
+
+    // The scan TicTacToeUI.checkWinner() ran over the button texts before GameState took over
+    static String checkWinner(String[][] board, int length) {
+        int size = board.length;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col <= size - length; col++) {
+                if (checkLine(board, row, col, 0, 1, length)) return board[row][col];
+            }
+        }
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row <= size - length; row++) {
+                if (checkLine(board, row, col, 1, 0, length)) return board[row][col];
+            }
+        }
+        for (int row = 0; row <= size - length; row++) {
+            for (int col = 0; col <= size - length; col++) {
+                if (checkLine(board, row, col, 1, 1, length)) return board[row][col];
+            }
+        }
+        for (int row = 0; row <= size - length; row++) {
+            for (int col = length - 1; col < size; col++) {
+                if (checkLine(board, row, col, 1, -1, length)) return board[row][col];
+            }
+        }
+        return null;
+    }
+
+    private static boolean checkLine(String[][] board, int startRow, int startCol, int deltaRow, int deltaCol, int length) {
+        String firstVal = board[startRow][startCol];
+        if (firstVal.isEmpty()) return false;
+        for (int i = 1; i < length; i++) {
+            if (!board[startRow + i * deltaRow][startCol + i * deltaCol].equals(firstVal)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package main.java.org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * The search hot paths allocate nothing: every engine, and AiPlayer at each difficulty, searches
+ * the benchmark corpus until warmed up, then the bytes allocated by this thread are counted
+ * over a batch of searches (HotSpot's per-thread allocation counter, as read by JMH's gc
+ * profiler) and must be zero.
+ */
+class AllocationTest {
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final int SEARCHES = 50;
+    // Budget of the time-limited AiPlayer searches (Hard, MCTS): short, the paths are what matter
+    private static final long BUDGET_MILLIS = 20;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("searches")
+    void searchAllocatesNothing(LongSupplier search) { // search returns the nodes it visited
+        long end = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < end) search.getAsLong();
+
+        long nodes = 0;
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < SEARCHES; i++) nodes += search.getAsLong();
+        long bytes = THREADS.getCurrentThreadAllocatedBytes() - before;
+
+        long visited = nodes;
+        assertEquals(0, bytes, () -> String.format(Locale.ROOT, "%.1f B/search, %.4f B/node",
+                (double) bytes / SEARCHES, (double) bytes / Math.max(1, visited)));
+    }
+
+    static List<Named<LongSupplier>> searches() {
+        List<Named<LongSupplier>> searches = new ArrayList<>();
+        for (BenchmarkPosition position : new BenchmarkPosition[] { BenchmarkPosition.MID_4X4, BenchmarkPosition.MID_5X5 }) {
+            BitboardAI ai = new BitboardAI(BenchmarkPosition.AI, BenchmarkPosition.HUMAN, position.size);
+            ai.setEvaluator(ThreatEvaluator.INSTANCE);
+            BitBoard board = position.searchBoard();
+            int depth = Math.min(position.searchDepth, 4);
+            searches.add(Named.of("BitboardAI depth " + depth + " " + position, () -> {
+                ai.getTranspositionTable().clear();
+                ai.bestCellWithDepthLimit(board, depth);
+                return ai.getNodeCount();
+            }));
+
+            MctsAI mcts = new MctsAI(position.size, position.size, position.winLength(), 1);
+            MnkBoard mnkBoard = position.mnkBoard();
+            searches.add(Named.of("MctsAI 2000 iterations " + position, () -> {
+                mcts.reset();
+                mcts.bestCell(mnkBoard, Long.MAX_VALUE, 2_000);
+                return mcts.getPlayouts();
+            }));
+        }
+
+        GameState gomoku = new GameState(15, 15, 5, GameState.X);
+        for (int cell : MnkSearchBenchmark.OPENING) gomoku.play(cell);
+        MnkAI mnk = new MnkAI(15, 15, 5);
+        MnkBoard mnkBoard = MnkBoard.of(gomoku);
+        TranspositionTable table = TranspositionTable.shared(15, 15, 5);
+        searches.add(Named.of("MnkAI depth 3 15x15", () -> {
+            table.clear();
+            mnk.bestCell(mnkBoard, 3, Long.MAX_VALUE);
+            return mnk.getNodeCount();
+        }));
+
+        // The whole move selection the game and the tournament run, snapshot included. Hard on
+        // 5x5 runs the proof-number solver, then iterative deepening on the rest of the budget
+        for (String difficulty : new String[] { "Easy", "Medium", "Hard", "MCTS" }) {
+            for (GameState game : new GameState[] { BenchmarkPosition.MID_5X5.gameState(), gomoku }) {
+                GameSettings settings = new GameSettings(game.rows(), game.cols(), game.winLength(), difficulty, "X");
+                AiPlayer player = new AiPlayer(settings, GameState.symbol(game.currentPlayer()), BUDGET_MILLIS, BUDGET_MILLIS, 1);
+                searches.add(Named.of("AiPlayer " + difficulty + " " + game.rows() + "x" + game.cols(), () -> {
+                    player.chooseMove(game);
+                    return Math.max(1, player.getLastNodes());
+                }));
+            }
+        }
+        return searches;
+    }
+}
@@ -0,0 +1,170 @@
+package main.java.org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The board symmetries behind the canonical transposition-table keys, on 3x3, 4x4 and 5x5:
+ * every symmetry is a permutation of the cells that invert undoes and that maps win lines onto
+ * win lines, all 8 orientations of random positions share one canonical hash, and the best move
+ * BitboardAI finds in each orientation, mapped back, is a best move of the original position
+ * for a plain minimax with no table and no symmetries.
+ */
+class SymmetryTest {
+    private static final int POSITIONS = 40; // per board size
+    private static final int[] DEPTH_LIMITS = { 2, Integer.MAX_VALUE };
+
+    @ParameterizedTest
+    @ValueSource(ints = { 3, 4, 5 })
+    void applyAndInvertRoundTrip(int size) {
+        Symmetry symmetry = Symmetry.of(size);
+        int cells = size * size;
+        long allCells = cells == 64 ? -1L : (1L << cells) - 1;
+        long[] lines = WinLines.of(size, GameSettings.defaultWinLength(size)).lines.clone();
+        Arrays.sort(lines);
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            long images = 0L;
+            for (int cell = 0; cell < cells; cell++) {
+                int image = symmetry.apply(s, cell);
+                images |= 1L << image;
+                assertEquals(cell, symmetry.invert(s, image), "symmetry " + s + ": invert(apply(" + cell + "))");
+                assertEquals(cell, symmetry.apply(s, symmetry.invert(s, cell)), "symmetry " + s + ": apply(invert(" + cell + "))");
+                assertEquals(1L << image, symmetry.apply(s, 1L << cell), "symmetry " + s + ": bit set of cell " + cell);
+            }
+            assertEquals(allCells, images, "symmetry " + s + " is not a permutation of the cells");
+            for (long line : lines) {
+                assertTrue(Arrays.binarySearch(lines, symmetry.apply(s, line)) >= 0,
+                        "symmetry " + s + " maps a win line onto something else");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 3, 4, 5 })
+    void orientationsShareTheCanonicalHash(int size) {
+        int winLength = GameSettings.defaultWinLength(size);
+        SplittableRandom random = new SplittableRandom(size);
+        for (int n = 0; n < POSITIONS; n++) {
+            String[][] board = randomBoard(size, winLength, random);
+            String toMove = toMove(board);
+            BitBoard original = BitBoard.fromStrings(board, winLength, toMove);
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                BitBoard oriented = BitBoard.fromStrings(turn(board, s), winLength, toMove);
+                assertEquals(original.hashes[s], oriented.hash(),
+                        "position " + n + ": hash seen through symmetry " + s + " and hash of the turned board");
+                assertEquals(original.canonicalHash(), oriented.canonicalHash(),
+                        "position " + n + ": canonical hash of symmetry " + s);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 3, 4, 5 })
+    void bestMovesMapBackToBestMoves(int size) {
+        int winLength = GameSettings.defaultWinLength(size);
+        Symmetry symmetry = Symmetry.of(size);
+        SplittableRandom random = new SplittableRandom(size);
+        for (int n = 0; n < POSITIONS; n++) {
+            String[][] board = randomBoard(size, winLength, random);
+            String toMove = toMove(board);
+            String waiting = toMove.equals("X") ? "O" : "X";
+            MinimaxAI reference = new MinimaxAI(toMove, waiting, size);
+            int[][] values = new int[DEPTH_LIMITS.length][];
+            for (int d = 0; d < DEPTH_LIMITS.length; d++) values[d] = rootValues(reference, board, toMove, waiting, DEPTH_LIMITS[d]);
+
+            // The table is shared by the orientations, so later ones read the moves earlier ones stored
+            BitboardAI ai = new BitboardAI(toMove, waiting, size);
+            ai.getTranspositionTable().clear();
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                BitBoard oriented = BitBoard.fromStrings(turn(board, s), winLength, toMove);
+                for (int d = 0; d < DEPTH_LIMITS.length; d++) {
+                    int depthLimit = DEPTH_LIMITS[d];
+                    int cell = depthLimit == Integer.MAX_VALUE ? ai.solve(oriented, Long.MAX_VALUE)
+                            : ai.bestCellWithDepthLimit(oriented, depthLimit);
+                    int back = symmetry.invert(s, cell);
+                    String search = depthLimit == Integer.MAX_VALUE ? "full" : "depth " + depthLimit;
+                    assertEquals(Arrays.stream(values[d]).max().getAsInt(), values[d][back],
+                            "position " + n + " symmetry " + s + " " + search + " search: value of move " + back);
+                }
+            }
+        }
+    }
+
+    // A random unfinished position: 3x3 from any opening, larger boards near the end, where the reference minimax is quick
+    private static String[][] randomBoard(int size, int winLength, SplittableRandom random) {
+        int cells = size * size;
+        int stones = size == 3 ? random.nextInt(7) : cells - 8 - random.nextInt(2);
+        GameState game = new GameState(size, winLength, GameState.X);
+        while (game.turns() < stones) {
+            int cell = random.nextInt(cells);
+            if (game.isEmpty(cell)) game.play(cell);
+            if (game.isOver()) game.reset();
+        }
+        String[][] board = new String[size][size];
+        for (int cell = 0; cell < cells; cell++) board[cell / size][cell % size] = GameState.symbol(game.get(cell));
+        return board;
+    }
+
+    // X starts, so X is to move whenever both sides have as many stones
+    private static String toMove(String[][] board) {
+        int balance = 0;
+        for (String[] row : board) {
+            for (String mark : row) balance += mark.equals("X") ? 1 : mark.equals("O") ? -1 : 0;
+        }
+        return balance == 0 ? "X" : "O";
+    }
+
+    // The board seen through symmetry s
+    private static String[][] turn(String[][] board, int s) {
+        int size = board.length;
+        Symmetry symmetry = Symmetry.of(size);
+        String[][] turned = new String[size][size];
+        for (int cell = 0; cell < size * size; cell++) {
+            int image = symmetry.apply(s, cell);
+            turned[image / size][image % size] = board[cell / size][cell % size];
+        }
+        return turned;
+    }
+
+    // MinimaxAI's value of every root move (Integer.MIN_VALUE for occupied cells)
+    private static int[] rootValues(MinimaxAI reference, String[][] board, String ai, String human, int depthLimit) {
+        int size = board.length;
+        int[] values = new int[size * size];
+        Arrays.fill(values, Integer.MIN_VALUE);
+        for (int cell = 0; cell < size * size; cell++) {
+            if (!board[cell / size][cell % size].isEmpty()) continue;
+            board[cell / size][cell % size] = ai;
+            values[cell] = minimax(reference, board, 0, false, depthLimit, ai, human);
+            board[cell / size][cell % size] = "";
+        }
+        return values;
+    }
+
+    // MinimaxAI's own recursion, without a table and without symmetries
+    private static int minimax(MinimaxAI reference, String[][] board, int depth, boolean isMaximizing, int depthLimit,
+                               String ai, String human) {
+        int score = reference.evaluate(board);
+        if (score == 10) return score - depth;
+        if (score == -10) return score + depth;
+        if (!reference.isMovesLeft(board)) return 0;
+        if (depth >= depthLimit) return 0;
+
+        int best = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (String[] row : board) {
+            for (int col = 0; col < row.length; col++) {
+                if (!row[col].isEmpty()) continue;
+                row[col] = isMaximizing ? ai : human;
+                int val = minimax(reference, board, depth + 1, !isMaximizing, depthLimit, ai, human);
+                row[col] = "";
+                best = isMaximizing ? Math.max(best, val) : Math.min(best, val);
+            }
+        }
+        return best;
+    }
+}
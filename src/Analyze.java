@@ -0,0 +1,49 @@
+import main.java.org.example.PositionAnalyzer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Batch analysis: java -cp tictactoe.jar Analyze --in positions.txt --out results.tsv
+public class Analyze {
+    private static final String USAGE = """
+            Usage: Analyze [--in FILE] [--out FILE] [--k N] [--threads N] [--budget MILLIS]
+            Reads one position per line ("X.O/.X./..O [X|O]") from FILE or standard input and writes
+            position, side to move, best move, result and nodes per line to FILE or standard output.""";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+
+        int k = Integer.parseInt(options.getOrDefault("k", "0"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long budget = options.containsKey("budget") ? Long.parseLong(options.get("budget")) : Long.MAX_VALUE;
+
+        PositionAnalyzer analyzer = new PositionAnalyzer(k, budget, threads);
+        try (BufferedReader in = options.containsKey("in")
+                ? Files.newBufferedReader(Path.of(options.get("in")))
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+             Writer out = options.containsKey("out")
+                     ? Files.newBufferedWriter(Path.of(options.get("out")))
+                     : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            analyzer.analyze(in, out);
+        }
+        System.err.printf(Locale.ROOT, "%d positions in %.2f s: %.0f positions/s%n", analyzer.getPositions(),
+                analyzer.getPositions() / Math.max(analyzer.positionsPerSecond(), 1e-9), analyzer.positionsPerSecond());
+    }
+}
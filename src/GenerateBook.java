@@ -0,0 +1,16 @@
+import main.java.org.example.OpeningBook;
+import main.java.org.example.OpeningBookGenerator;
+
+import java.nio.file.Path;
+
+public class GenerateBook {
+    public static void main(String[] args) throws Exception {
+        // 3x3 and 4x4 are both played with 3 in a row
+        for (int size : new int[] { 3, 4 }) {
+            Path file = OpeningBook.fileFor(size, 3);
+            long start = System.nanoTime();
+            int positions = new OpeningBookGenerator(size, 3).generate(file);
+            System.out.printf("%s: %d positions in %d ms%n", file, positions, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import main.java.org.example.GameServer;
+import main.java.org.example.LoadTestClient;
+import main.java.org.example.SelfPlayTournament;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Load test: java -cp tictactoe.jar LoadTest --connections 2000 --games 20 --opponent Easy
+public class LoadTest {
+    private static final String USAGE = """
+            Usage: LoadTest [--host ADDRESS] [--port N] [--connections N] [--games N] [--board RxC] [--k N]
+                            [--opponent Human|Easy|Medium|Hard|MCTS] [--seed N] [--timeout SECONDS]
+                            [--ai-threads N]
+            Without --port an in-process server is started on a free loopback port.""";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+
+        String[] board = options.getOrDefault("board", "3x3").toLowerCase(Locale.ROOT).split("x");
+        int rows = Integer.parseInt(board[0]);
+        int cols = Integer.parseInt(board[board.length - 1]);
+        int k = Integer.parseInt(options.getOrDefault("k", "3"));
+        int connections = Integer.parseInt(options.getOrDefault("connections", "1000"));
+        int games = Integer.parseInt(options.getOrDefault("games", "10"));
+        String opponent = options.getOrDefault("opponent", "Easy");
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        long timeout = Long.parseLong(options.getOrDefault("timeout", "300"));
+
+        GameServer embedded = null;
+        InetSocketAddress address;
+        if (options.containsKey("port")) {
+            address = new InetSocketAddress(options.getOrDefault("host", "localhost"),
+                    Integer.parseInt(options.get("port")));
+        } else {
+            int aiThreads = Integer.parseInt(options.getOrDefault("ai-threads",
+                    String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() - 1))));
+            embedded = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), aiThreads,
+                    100, 100, 1);
+            GameServer server = embedded;
+            Thread thread = new Thread(() -> {
+                try {
+                    server.run();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }, "game-server");
+            thread.setDaemon(true);
+            thread.start();
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), embedded.port());
+        }
+
+        LoadTestClient client = new LoadTestClient(address, connections, games, rows, cols, k, opponent, seed);
+        boolean finished = client.run(timeout * 1000);
+        if (embedded != null) embedded.close();
+
+        System.out.printf(Locale.ROOT, "%d connections, %d games vs %s on %dx%d k=%d in %.2f s: %.0f games/s%s%n",
+                connections, client.games, opponent, rows, cols, k, client.wallNanos / 1e9, client.gamesPerSecond(),
+                finished ? "" : " (timed out)");
+        System.out.printf(Locale.ROOT, "  results: X %d, O %d, ties %d, errors %d%n",
+                client.xWins, client.oWins, client.ties, client.errors);
+        print("move confirmed", client.confirmations);
+        print("reply received", client.replies);
+        if (!finished) System.exit(1);
+    }
+
+    private static void print(String name, SelfPlayTournament.Side s) {
+        System.out.printf(Locale.ROOT, "  %-14s %d moves, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                name, s.moves(), s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                s.percentileMillis(100));
+    }
+}
@@ -1,7 +1,10 @@
 import main.java.org.example.TicTacToe;
 
+import javax.swing.SwingUtilities;
+
 public class Main {
     public static void main(String[] args) {
-        TicTacToe ticTacToe = new TicTacToe();
+        // Swing components are built on the event dispatch thread
+        SwingUtilities.invokeLater(TicTacToe::new);
     }
 }
\ No newline at end of file
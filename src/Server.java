@@ -0,0 +1,55 @@
+import main.java.org.example.GameLog;
+import main.java.org.example.GameServer;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Game server: java -cp tictactoe.jar Server --port 7878, then play with e.g. `nc localhost 7878`
+public class Server {
+    private static final String USAGE = """
+            Usage: Server [--host ADDRESS] [--port N] [--ai-threads N] [--budget MILLIS]
+                          [--mcts-budget MILLIS] [--mcts-threads N] [--record GAMELOG]
+            Protocol: NEW 3x3 3 Hard [X|O], MOVE <cell>, QUIT (see GameServer).""";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+
+        String host = options.getOrDefault("host", "0.0.0.0");
+        int port = Integer.parseInt(options.getOrDefault("port", "7878"));
+        // Leave a core for the selector thread
+        int aiThreads = Integer.parseInt(options.getOrDefault("ai-threads",
+                String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() - 1))));
+        long budget = Long.parseLong(options.getOrDefault("budget", "100"));
+        long mctsBudget = Long.parseLong(options.getOrDefault("mcts-budget", "100"));
+        int mctsThreads = Integer.parseInt(options.getOrDefault("mcts-threads", "1"));
+
+        GameServer server = new GameServer(new InetSocketAddress(host, port), aiThreads, budget, mctsBudget, mctsThreads);
+        GameLog log = options.containsKey("record") ? GameLog.open(Path.of(options.get("record"))) : null;
+        server.setGameLog(log);
+        ScheduledExecutorService status = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "server-status");
+            t.setDaemon(true);
+            return t;
+        });
+        status.scheduleAtFixedRate(() -> System.out.printf(Locale.ROOT,
+                "%d connections, %d games started, %d finished, %d moves%n", server.getConnections(),
+                server.getGamesStarted(), server.getGamesFinished(), server.getMovesPlayed()), 10, 10, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Listening on " + host + ":" + server.port() + " with " + aiThreads + " AI threads");
+        server.run();
+        if (log != null) log.close();
+    }
+}
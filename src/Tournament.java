@@ -0,0 +1,70 @@
+import main.java.org.example.GameLog;
+import main.java.org.example.GameSettings;
+import main.java.org.example.SelfPlayTournament;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Headless self-play: java -cp tictactoe.jar Tournament --board 4x4 --pairings Hard:Medium,MCTS:Hard --games 200
+public class Tournament {
+    private static final String USAGE = """
+            Usage: Tournament [--board RxC] [--k N] [--pairings A:B,...] [--games N] [--threads N]
+                              [--budget MILLIS] [--mcts-budget MILLIS] [--mcts-threads N]
+                              [--random-plies N] [--seed N] [--out PREFIX] [--record GAMELOG]
+            Difficulties: Easy, Medium, Hard, MCTS. Writes PREFIX.csv and PREFIX.json,
+            and appends every game to GAMELOG if given.""";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+
+        String[] board = options.getOrDefault("board", "3x3").toLowerCase(Locale.ROOT).split("x");
+        int rows = Integer.parseInt(board[0]);
+        int cols = Integer.parseInt(board[board.length - 1]);
+        int k = Integer.parseInt(options.getOrDefault("k", String.valueOf(GameSettings.defaultWinLength(rows, cols))));
+        List<SelfPlayTournament.Pairing> pairings = new ArrayList<>();
+        for (String pairing : options.getOrDefault("pairings", "Hard:Medium").split(",")) {
+            pairings.add(SelfPlayTournament.Pairing.parse(pairing));
+        }
+        int games = Integer.parseInt(options.getOrDefault("games", "100"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long budget = Long.parseLong(options.getOrDefault("budget", "100"));
+        long mctsBudget = Long.parseLong(options.getOrDefault("mcts-budget", "100"));
+        int mctsThreads = Integer.parseInt(options.getOrDefault("mcts-threads", "1"));
+        int randomPlies = Integer.parseInt(options.getOrDefault("random-plies", "2"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        String out = options.getOrDefault("out", "tournament");
+
+        SelfPlayTournament tournament = new SelfPlayTournament(rows, cols, k, games, budget, mctsBudget,
+                mctsThreads, randomPlies, seed, threads);
+        GameLog log = options.containsKey("record") ? GameLog.open(Path.of(options.get("record"))) : null;
+        tournament.setGameLog(log);
+        List<SelfPlayTournament.Result> results = tournament.run(pairings);
+        if (log != null) log.close();
+        for (SelfPlayTournament.Result r : results) {
+            System.out.printf(Locale.ROOT, "%dx%d k=%d %s vs %s: +%d =%d -%d in %d games (%.1f games/s)%n",
+                    rows, cols, k, r.pairing.first(), r.pairing.second(), r.firstWins, r.draws, r.secondWins,
+                    r.games, r.gamesPerSecond());
+            for (SelfPlayTournament.Side s : new SelfPlayTournament.Side[] { r.first, r.second }) {
+                String name = s == r.first ? r.pairing.first() : r.pairing.second();
+                System.out.printf(Locale.ROOT, "  %-6s p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms, %.0f nodes/move%n",
+                        name, s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                        s.percentileMillis(100), s.nodesPerMove());
+            }
+        }
+        tournament.writeCsv(results, Path.of(out + ".csv"));
+        tournament.writeJson(results, Path.of(out + ".json"));
+        System.out.println("Report written to " + out + ".csv and " + out + ".json");
+    }
+}
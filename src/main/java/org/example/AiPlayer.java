@@ -0,0 +1,335 @@
+package main.java.org.example;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Picks moves for one side at one difficulty, without any threading or Swing: the engine
+ * selection behind AiService, also used headless by the self-play tournament. Bitboard
+ * search on small square boards, MnkAI on larger or rectangular ones, MCTS on any board.
+ * Not thread-safe: one search at a time per player.
+ */
+public class AiPlayer {
+    // Largest square board searched full-width on bitboards; bigger or rectangular boards use MnkAI
+    static final int BITBOARD_MAX_SIZE = 5;
+    // Plies searched by Medium on m,n,k boards (the root move and two replies, as on the small boards)
+    private static final int MNK_MEDIUM_DEPTH = 3;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    // Reply ranking weights, as in MnkAI's move ordering: a window with n marks of one side only is worth 4^n
+    private static final int[] REPLY_WEIGHTS = new int[16];
+
+    static {
+        for (int n = 0; n < REPLY_WEIGHTS.length; n++) REPLY_WEIGHTS[n] = 1 << Math.min(2 * n, 24);
+    }
+
+    private final GameSettings settings;
+    private final int side; // GameState.X or O
+    private final BitboardAI engine; // null on m,n,k boards
+    private final MnkAI mnkEngine; // null on the classic boards
+    private final MctsAI mctsEngine; // MCTS difficulty only, on any board; keeps its tree between moves
+    private final ProofNumberSolver solver; // Hard on 4x4 and 5x5 only
+    private final long moveBudgetMillis;
+    private final long mctsBudgetMillis;
+    // Reused by chooseMove, which snapshots and searches on the calling thread (one of them is null)
+    private final BitBoard snapshot;
+    private final MnkBoard mnkSnapshot;
+
+    // stop() calls so far; a search prepared before the latest one doesn't start
+    private final AtomicLong stops = new AtomicLong();
+
+    private volatile long lastNodes;
+    private volatile boolean lastProven; // the last move came from a proof, not from alpha-beta
+    private volatile SearchListener listener; // null unless someone wants search statistics
+
+    /**
+     * Player for the side ai ("X" or "O"). moveBudgetMillis limits Hard (and Medium on m,n,k
+     * boards), mctsBudgetMillis is what MCTS spends on every move, using mctsThreads threads.
+     */
+    public AiPlayer(GameSettings settings, String ai, long moveBudgetMillis, long mctsBudgetMillis,
+                    int mctsThreads) {
+        this.settings = settings;
+        this.side = GameState.player(ai);
+        this.moveBudgetMillis = moveBudgetMillis;
+        this.mctsBudgetMillis = mctsBudgetMillis;
+        this.mctsEngine = settings.difficulty().equals("MCTS")
+                ? new MctsAI(settings.rows(), settings.cols(), settings.winLength(), mctsThreads) : null;
+        if (mctsEngine != null) {
+            this.engine = null;
+            this.mnkEngine = null;
+        } else if (settings.isSquare() && settings.rows() <= BITBOARD_MAX_SIZE) {
+            String human = ai.equals("X") ? "O" : "X";
+            this.engine = new BitboardAI(ai, human, settings.rows(), settings.winLength());
+            this.mnkEngine = null;
+            // A depth-2 search sees little of a 4x4 or 5x5 game, so score where it stops by open lines
+            // instead of calling every unfinished position a draw (3x3 Medium keeps its original play)
+            if (settings.rows() > 3) engine.setEvaluator(ThreatEvaluator.INSTANCE);
+        } else {
+            this.engine = null;
+            this.mnkEngine = new MnkAI(settings.rows(), settings.cols(), settings.winLength());
+        }
+        this.solver = engine != null && settings.rows() > 3 && settings.difficulty().equals("Hard")
+                ? new ProofNumberSolver(settings.rows(), settings.winLength()) : null;
+        this.snapshot = engine != null ? new BitBoard(settings.rows(), settings.winLength()) : null;
+        this.mnkSnapshot = engine == null ? new MnkBoard(settings.rows(), settings.cols(), settings.winLength()) : null;
+    }
+
+    /**
+     * Snapshots state now and returns the search for the player to move, which may then run
+     * on any thread while the game itself moves on. The snapshot is a fresh board per call,
+     * since an abandoned search may still be reading the previous one. A stop() after this
+     * call also stops the search, even if it hasn't started yet: it then returns -1.
+     */
+    public IntSupplier prepareMove(GameState state) {
+        long token = stops.get();
+        IntSupplier search;
+        if (engine != null) {
+            BitBoard position = BitBoard.of(state);
+            search = () -> start(token) ? chooseMove(position, budgetMillis()) : -1;
+        } else {
+            MnkBoard position = MnkBoard.of(state);
+            search = () -> start(token) ? chooseMove(position, budgetMillis()) : -1;
+        }
+        // Without a listener the search runs bare: no clocks, no allocation counters, no stats object
+        SearchListener l = listener;
+        return l == null ? search : () -> measure(search, l);
+    }
+
+    /**
+     * Like prepareMove, for the position after the opponent (to move in state) plays reply:
+     * the search pondering runs while the human is still thinking. Its statistics go to sink
+     * rather than the search listener, since most pondered answers are never played; a null
+     * sink runs it bare.
+     */
+    public IntSupplier prepareReply(GameState state, int reply, SearchListener sink) {
+        long token = stops.get();
+        IntSupplier search;
+        if (engine != null) {
+            BitBoard position = BitBoard.of(state);
+            position.make(reply);
+            search = () -> start(token) ? chooseMove(position, budgetMillis()) : -1;
+        } else {
+            MnkBoard position = MnkBoard.of(state);
+            position.make(reply);
+            search = () -> start(token) ? chooseMove(position, budgetMillis()) : -1;
+        }
+        return sink == null ? search : () -> measure(search, sink);
+    }
+
+    /*
+     * Clears the engines' stop flags for a search prepared at token, unless stop() was called
+     * since. The flags are cleared before the count is read, so a stop() racing with this
+     * either shows in the count or sets the flags again afterwards: it is never lost.
+     */
+    private boolean start(long token) {
+        if (engine != null) engine.clearStop();
+        if (solver != null) solver.clearStop();
+        if (mnkEngine != null) mnkEngine.clearStop();
+        if (mctsEngine != null) mctsEngine.clearStop();
+        return stops.get() == token;
+    }
+
+    /**
+     * Fills replies with the likeliest moves of the opponent, to move in state, best first, and
+     * returns how many there are. Ranked the way MnkAI orders its moves, by the lines each one
+     * extends or blocks, so a forced block comes out on top. Replies that end the game are left
+     * out: there is nothing to answer them with.
+     */
+    public int likelyReplies(GameState state, int[] replies) {
+        MnkBoard board = MnkBoard.of(state);
+        int side = board.sideToMove();
+        int[] scores = new int[replies.length];
+        int count = 0;
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (!board.isEmpty(cell)) continue;
+            board.make(cell);
+            boolean ends = board.hasWon(side) || board.isFull();
+            board.unmake(cell);
+            if (ends) continue;
+            // Insertion into the short list kept sorted by score
+            int score = board.counters.moveScore(side, cell, REPLY_WEIGHTS);
+            int i = Math.min(count, replies.length - 1);
+            if (count == replies.length && score <= scores[i]) continue;
+            for (; i > 0 && scores[i - 1] < score; i--) {
+                replies[i] = replies[i - 1];
+                scores[i] = scores[i - 1];
+            }
+            replies[i] = cell;
+            scores[i] = score;
+            if (count < replies.length) count++;
+        }
+        return count;
+    }
+
+    // Easy plays at random and instantly, so it has nothing to ponder
+    public boolean canPonder() {
+        return !settings.difficulty().equals("Easy");
+    }
+
+    // Searches and returns the move for the player to move in state, on the calling thread.
+    // Allocates nothing unless a search listener is set
+    public int chooseMove(GameState state) {
+        start(stops.get());
+        if (snapshot != null) snapshot.load(state);
+        else mnkSnapshot.load(state);
+        SearchListener l = listener;
+        return l == null ? searchSnapshot() : measure(this::searchSnapshot, l);
+    }
+
+    private int searchSnapshot() {
+        return snapshot != null ? chooseMove(snapshot, budgetMillis()) : chooseMove(mnkSnapshot, budgetMillis());
+    }
+
+    /**
+     * Returns a search of a first move with budgetMillis instead of the usual budget, which
+     * forgets the game again: afterwards the engine's tables exist and the JIT has compiled
+     * the search, so the real first move doesn't pay for either. Run it on the search thread;
+     * like prepareMove, a stop() after this call stops it.
+     */
+    public Runnable prepareWarmUp(long budgetMillis) {
+        long token = stops.get();
+        return () -> {
+            if (!start(token)) return;
+            GameState state = new GameState(settings.rows(), settings.cols(), settings.winLength(), GameState.X);
+            if (side == GameState.O) state.play(settings.rows() / 2 * settings.cols() + settings.cols() / 2);
+            if (snapshot != null) {
+                snapshot.load(state);
+                chooseMove(snapshot, budgetMillis);
+            } else {
+                mnkSnapshot.load(state);
+                chooseMove(mnkSnapshot, budgetMillis);
+            }
+            newGame();
+        };
+    }
+
+    // Time a move may take: MCTS always spends all of its own budget, the others stop early when done
+    private long budgetMillis() {
+        return mctsEngine != null ? mctsBudgetMillis : moveBudgetMillis;
+    }
+
+    // Receives the statistics of every later search; null turns collecting them off again
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    // Forgets what was learned about the previous game (the MCTS tree); the book and table stay valid
+    public void newGame() {
+        if (mctsEngine != null) mctsEngine.reset();
+    }
+
+    // Makes the running search (on another thread) return as soon as possible, and cancels prepared ones
+    public void stop() {
+        stops.incrementAndGet();
+        if (engine != null) engine.stop();
+        if (solver != null) solver.stop();
+        if (mnkEngine != null) mnkEngine.stop();
+        if (mctsEngine != null) mctsEngine.stop();
+    }
+
+    // Nodes searched for the last move (playouts for MCTS, 0 for Easy and book moves)
+    public long getLastNodes() {
+        return lastNodes;
+    }
+
+    // Playout rate of the last MCTS search (0 for the other difficulties)
+    public double getPlayoutsPerSecond() {
+        return mctsEngine == null ? 0 : mctsEngine.getPlayoutsPerSecond();
+    }
+
+    private int measure(IntSupplier search, SearchListener l) {
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        int move = search.getAsInt();
+        long wallNanos = System.nanoTime() - start;
+        long allocated = bytes < 0 ? -1 : allocatedBytes() - bytes;
+        l.searchFinished(stats(move, wallNanos, allocated));
+        return move;
+    }
+
+    private SearchStats stats(int move, long wallNanos, long allocated) {
+        String difficulty = settings.difficulty();
+        if (mctsEngine != null) {
+            return new SearchStats("MCTS", difficulty, move, mctsEngine.getPlayouts(), 0, 0, 0,
+                    mctsEngine.getMaxDepth(), mctsEngine.getBranchingFactor(), wallNanos, allocated);
+        } else if (!difficulty.equals("Hard") && !difficulty.equals("Medium")) {
+            return new SearchStats("Random", difficulty, move, 0, 0, 0, 0, 0, 0, wallNanos, allocated);
+        } else if (lastProven) {
+            return new SearchStats("Proof-number", difficulty, move, solver.getNodeCount(), 0, 0, 0, 0, 0,
+                    wallNanos, allocated);
+        } else if (engine != null) {
+            int depth = difficulty.equals("Medium") ? 2 : Math.max(0, engine.getCompletedDepth());
+            return new SearchStats("Alpha-beta", difficulty, move, engine.getNodeCount(), engine.getCutoffCount(),
+                    engine.getTableHits(), depth, engine.getMaxPly(), engine.getBranchingFactor(), wallNanos, allocated);
+        }
+        return new SearchStats("m,n,k alpha-beta", difficulty, move, mnkEngine.getNodeCount(), mnkEngine.getCutoffCount(),
+                mnkEngine.getTableHits(), mnkEngine.getCompletedDepth(), mnkEngine.getMaxPly(),
+                mnkEngine.getBranchingFactor(), wallNanos, allocated);
+    }
+
+    // Bytes allocated so far by the calling thread, or -1 where the JVM doesn't track it
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled())
+            return threads.getCurrentThreadAllocatedBytes();
+        return -1;
+    }
+
+    // Select move depending on difficulty
+    private int chooseMove(BitBoard position, long budgetMillis) {
+        int move;
+        lastProven = false;
+        if (solver != null && !engine.inBook(position)) {
+            // 4x4 and 5x5 are too big to search to the end, so first try to prove the result with half
+            // the budget: a proven win or draw is played at once, and the proof stays in the solver's table
+            long start = System.nanoTime();
+            int result = solver.solve(position, budgetMillis / 2);
+            if ((result == ProofNumberSolver.WIN || result == ProofNumberSolver.DRAW) && solver.getBestMove() >= 0) {
+                lastProven = true;
+                lastNodes = solver.getNodeCount();
+                return solver.getBestMove();
+            }
+            // Unproven (or a proven loss, where alpha-beta still finds the longest defence): search the rest
+            long spentMillis = (System.nanoTime() - start) / 1_000_000L;
+            long remaining = solver.wasStopped() ? 0 : Math.max(1, budgetMillis - spentMillis);
+            move = engine.bestCellIterative(position, remaining);
+        } else if (settings.difficulty().equals("Hard")) {
+            // Full-depth search, cut short by the time budget if needed
+            move = engine.bestCellIterative(position, budgetMillis);
+        } else if (settings.difficulty().equals("Medium")) {
+            // Use minimax with depth limit (less "smart")
+            move = engine.bestCellWithDepthLimit(position, 2);
+        } else {
+            // Easy mode → pick random available cell
+            long empty = position.emptyCells();
+            int skip = ThreadLocalRandom.current().nextInt(Long.bitCount(empty));
+            for (; skip > 0; skip--) empty &= empty - 1;
+            lastNodes = 0;
+            return Long.numberOfTrailingZeros(empty);
+        }
+        lastNodes = engine.getNodeCount();
+        return move;
+    }
+
+    // Same choice on an m,n,k board: the search only looks at cells near the stones already played
+    private int chooseMove(MnkBoard position, long budgetMillis) {
+        if (mctsEngine != null) {
+            int move = mctsEngine.bestCell(position, budgetMillis, Long.MAX_VALUE);
+            lastNodes = mctsEngine.getPlayouts();
+            return move;
+        } else if (settings.difficulty().equals("Hard") || settings.difficulty().equals("Medium")) {
+            int depth = settings.difficulty().equals("Hard") ? MnkAI.MAX_DEPTH : MNK_MEDIUM_DEPTH;
+            int move = mnkEngine.bestCell(position, depth, budgetMillis);
+            lastNodes = mnkEngine.getNodeCount();
+            return move;
+        } else {
+            lastNodes = 0;
+            int skip = ThreadLocalRandom.current().nextInt(position.cellCount() - position.moveCount());
+            for (int cell = 0; ; cell++) {
+                if (position.isEmpty(cell) && skip-- == 0) return cell;
+            }
+        }
+    }
+}
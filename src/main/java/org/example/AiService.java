@@ -0,0 +1,260 @@
+package main.java.org.example;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs AI move searches on a background thread so the Swing event thread never blocks.
+ * Each request gets a time budget; cancel() abandons the current request (reset, back
+ * to home) and its result is then never delivered. Moves are handed back on the EDT.
+ *
+ * While the human thinks, ponder() searches the AI's answers to the human's likeliest
+ * replies on the same thread, so a predicted reply is answered at once.
+ */
+public class AiService {
+    // Per-move time budget for the full-depth search; iterative deepening answers with the best move so far
+    public static final long DEFAULT_MOVE_BUDGET_MILLIS = Long.getLong("tictactoe.moveBudgetMillis", 3000);
+
+    // One search thread for the whole application; daemon so it never keeps the JVM alive
+    private static final ExecutorService SEARCH_THREAD = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ai-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Per-move thinking time of the MCTS difficulty, which always uses all of it
+    public static final long MCTS_BUDGET_MILLIS = Long.getLong("tictactoe.mctsBudgetMillis", 1000);
+
+    // Length of the warm-up search run for the settings picked on the intro screen; 0 turns warm-up off
+    public static final long WARMUP_MILLIS = Long.getLong("tictactoe.warmupMillis", 300);
+
+    // Pondering on the human's time, on by default; -Dtictactoe.ponder=false turns it off
+    public static final boolean PONDER = Boolean.parseBoolean(System.getProperty("tictactoe.ponder", "true"));
+    // Replies pondered per human turn, likeliest first; each gets a full move budget
+    public static final int PONDER_REPLIES = Integer.getInteger("tictactoe.ponderReplies", 8);
+
+    // Engines of the last few settings played, so starting another game doesn't rebuild their buffers
+    private static final int CACHED_PLAYERS = 4;
+    private static final Map<PlayerKey, AiPlayer> PLAYERS = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PlayerKey, AiPlayer> eldest) {
+            return size() > CACHED_PLAYERS;
+        }
+    };
+
+    private record PlayerKey(GameSettings settings, String ai, long moveBudgetMillis) {}
+
+    private static volatile PlayerKey latestWarmUp; // only the settings chosen last are warmed up
+    private static volatile AiPlayer warmingUp; // player whose warm-up search is running, if any
+
+    private final AiPlayer player;
+    private final AtomicInteger generation = new AtomicInteger(); // bumped by cancel() to drop stale results
+
+    private CompletableFuture<Integer> pending; // only touched on the EDT
+    private volatile long lastSearchMillis;
+    private volatile boolean lastPondered;
+    private volatile SearchListener listener;
+
+    // Pondering of the current human turn: set on the EDT, answers filled in on the search thread
+    private AtomicIntegerArray ponderAnswers; // AI answer per human reply, -1 until searched; null when not pondering
+    private SearchStats[] ponderStats; // statistics of each answer's search, with a search listener only
+    private int ponderGeneration;
+    private int ponderTurns; // turns played when pondering started
+    private volatile int ponderingReply = -1; // reply whose answer is being searched
+    private volatile boolean finishPondering; // ponder no further replies: the one being searched is wanted
+
+    public AiService(GameSettings settings, String ai, String human) {
+        this(settings, ai, human, DEFAULT_MOVE_BUDGET_MILLIS);
+    }
+
+    public AiService(GameSettings settings, String ai, String human, long moveBudgetMillis) {
+        this.player = player(new PlayerKey(settings, ai, moveBudgetMillis));
+        player.setSearchListener(null);
+        // Queued behind any search still running for this player (a warm-up, an abandoned game)
+        SEARCH_THREAD.execute(player::newGame);
+    }
+
+    // Cached engine for these settings, built on first use; searches only ever run on SEARCH_THREAD
+    private static synchronized AiPlayer player(PlayerKey key) {
+        return PLAYERS.computeIfAbsent(key, k -> new AiPlayer(k.settings(), k.ai(), k.moveBudgetMillis(),
+                MCTS_BUDGET_MILLIS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private static synchronized boolean isCached(PlayerKey key) {
+        return PLAYERS.containsKey(key);
+    }
+
+    /**
+     * Gets the engine for a game with these settings ready in the background while the intro
+     * screen is up: builds its tables (transposition table, win lines, hash keys, opening book)
+     * and runs a short search with it, so neither Start nor the first AI move pays for that,
+     * nor for loading and compiling the search code. Only the settings chosen last are warmed
+     * up, each once; a game's first search stops a warm-up that is still running.
+     */
+    public static void warmUp(GameSettings settings) {
+        if (WARMUP_MILLIS <= 0) return;
+        String ai = settings.playAs().equals("X") ? "O" : "X";
+        PlayerKey key = new PlayerKey(settings, ai, DEFAULT_MOVE_BUDGET_MILLIS);
+        latestWarmUp = key;
+        SEARCH_THREAD.execute(() -> {
+            if (key != latestWarmUp || isCached(key)) return; // superseded, or built already
+            AiPlayer player = player(key);
+            Runnable warmUp = player.prepareWarmUp(WARMUP_MILLIS); // prepared first, so a stop seen below counts
+            warmingUp = player;
+            warmUp.run();
+            warmingUp = null;
+        });
+    }
+
+    /**
+     * Starts pondering with the human to move in state: searches the AI's answers to the
+     * human's likeliest replies, each with the full move budget, until all are done or the
+     * human moves. The next requestMove plays a pondered answer at once. Pondering stops at
+     * that request and at cancel(). Call on the EDT.
+     */
+    public void ponder(GameState state) {
+        stopPondering();
+        if (!PONDER || state.isOver() || !player.canPonder()) return;
+        AiPlayer warming = warmingUp;
+        if (warming != null) warming.stop(); // pondering prepares the game better than the warm-up
+        int[] replies = new int[PONDER_REPLIES];
+        int count = player.likelyReplies(state, replies);
+        // Each search's statistics are kept for when its answer is played, and only then reported
+        SearchStats[] stats = listener == null ? null : new SearchStats[state.cellCount()];
+        IntSupplier[] searches = new IntSupplier[count];
+        for (int i = 0; i < count; i++) {
+            int reply = replies[i];
+            searches[i] = player.prepareReply(state, reply, stats == null ? null : s -> stats[reply] = s);
+        }
+        int[] none = new int[state.cellCount()];
+        Arrays.fill(none, -1);
+        AtomicIntegerArray answers = new AtomicIntegerArray(none);
+        int request = generation.get();
+        ponderAnswers = answers;
+        ponderStats = stats;
+        ponderGeneration = request;
+        ponderTurns = state.turns();
+        finishPondering = false;
+        SEARCH_THREAD.execute(() -> {
+            for (int i = 0; i < count && !finishPondering; i++) {
+                if (request != generation.get()) return; // stopped
+                ponderingReply = replies[i];
+                int move = searches[i].getAsInt();
+                if (request != generation.get()) return; // stopped part-way: not a move to play
+                answers.set(replies[i], move);
+                ponderingReply = -1;
+            }
+        });
+    }
+
+    // Stops pondering; the search running on its behalf stops at its next check
+    private void stopPondering() {
+        if (ponderAnswers == null) return;
+        ponderAnswers = null;
+        generation.incrementAndGet();
+        player.stop();
+    }
+
+    /**
+     * Starts searching a move for the player to move in state and calls onMove with the
+     * chosen cell on the EDT, unless the request is cancelled first. Call on the EDT:
+     * the search works on a bitboard snapshot, so the game may change meanwhile. A reply
+     * that was pondered is answered without searching again.
+     */
+    public void requestMove(GameState state, IntConsumer onMove) {
+        AiPlayer warming = warmingUp;
+        if (warming != null) warming.stop(); // the search below waits for the warm-up to end
+        long start = System.nanoTime();
+        AtomicIntegerArray answers = ponderAnswers;
+        SearchStats[] stats = ponderStats; // written before each answer, so read after it
+        int reply = state.lastMove();
+        boolean predicted = answers != null && ponderGeneration == generation.get()
+                && state.turns() == ponderTurns + 1;
+        // Set before the answer is read: either it is there, or the ponder search for it stops after it
+        if (predicted) finishPondering = true;
+        boolean answered = predicted && answers.get(reply) >= 0;
+        boolean inProgress = predicted && !answered && ponderingReply == reply;
+        if (!inProgress) stopPondering(); // else let the ponder search of this reply finish, then take its answer
+        ponderAnswers = null;
+
+        int request = generation.get();
+        if (answered) {
+            lastSearchMillis = 0;
+            lastPondered = true;
+            reportPondered(stats, reply);
+            pending = CompletableFuture.completedFuture(answers.get(reply));
+        } else {
+            IntSupplier search = player.prepareMove(state);
+            pending = CompletableFuture.supplyAsync(() -> {
+                if (request != generation.get()) return null; // cancelled before it started
+                int move = inProgress ? answers.get(reply) : -1;
+                lastPondered = move >= 0;
+                if (move >= 0) reportPondered(stats, reply);
+                else move = search.getAsInt();
+                lastSearchMillis = (System.nanoTime() - start) / 1_000_000;
+                return move;
+            }, SEARCH_THREAD);
+        }
+
+        pending.thenAccept(move -> SwingUtilities.invokeLater(() -> {
+            if (move != null && move >= 0 && request == generation.get()) {
+                pending = null;
+                onMove.accept(move);
+            }
+        }));
+    }
+
+    // Reports the search that pondered the answer to reply, now that the answer is played
+    private void reportPondered(SearchStats[] stats, int reply) {
+        SearchListener l = listener;
+        if (l != null && stats != null && stats[reply] != null) l.searchFinished(stats[reply]);
+    }
+
+    // Abandons the current request and stops pondering; the running search stops at its next check
+    public void cancel() {
+        ponderAnswers = null;
+        generation.incrementAndGet();
+        player.stop();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    public boolean isThinking() {
+        return pending != null;
+    }
+
+    // Wall time from the last request to its move: the search, or the wait for a pondered answer
+    public long getLastSearchMillis() {
+        return lastSearchMillis;
+    }
+
+    // Whether the last move was pondered, during the human's turn, rather than searched after it
+    public boolean wasPondered() {
+        return lastPondered;
+    }
+
+    /*
+     * See AiPlayer.setSearchListener; the listener runs on the search thread, or on the EDT
+     * for an answer pondered in advance, which reports the search that found it when played.
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+        player.setSearchListener(listener);
+    }
+
+    // Playout rate of the last MCTS search (0 for the other difficulties)
+    public double getPlayoutsPerSecond() {
+        return player.getPlayoutsPerSecond();
+    }
+}
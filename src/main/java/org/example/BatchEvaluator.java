@@ -0,0 +1,45 @@
+package main.java.org.example;
+
+/**
+ * Scores many positions in one call, for self-play and analysis: +10 where the AI has a
+ * completed line, -10 where its opponent has one and 0 elsewhere, exactly as
+ * MinimaxAI.evaluate scores them (a board where both sides have a line, which no game
+ * reaches, scores +10). Boards come packed like BitBoard: one long of stones per side and
+ * board, bit row * size + col, so up to 8x8.
+ *
+ * <p>The benchmarks module subclasses it with a Vector API version, which needs the incubator
+ * module and so stays out of the game build.
+ */
+public class BatchEvaluator {
+    public static final int WIN_SCORE = 10;
+
+    protected final long[] lines;
+
+    protected BatchEvaluator(int size, int winLength) {
+        if (size < 1 || size > WinLines.MAX_SIZE || winLength < 1 || winLength > size)
+            throw new IllegalArgumentException("Unsupported board " + size + "x" + size + " with win length " + winLength);
+        this.lines = WinLines.of(size, winLength).lines;
+    }
+
+    public static BatchEvaluator of(int size, int winLength) {
+        return new BatchEvaluator(size, winLength);
+    }
+
+    /**
+     * Writes the score of boards 0 to count - 1 to scores, from the point of view of the side
+     * whose stones are in ai.
+     */
+    public void evaluate(long[] ai, long[] opponent, int count, int[] scores) {
+        for (int i = 0; i < count; i++) scores[i] = score(ai[i], opponent[i]);
+    }
+
+    protected final int score(long ai, long opponent) {
+        for (long line : lines) {
+            if ((ai & line) == line) return WIN_SCORE;
+        }
+        for (long line : lines) {
+            if ((opponent & line) == line) return -WIN_SCORE;
+        }
+        return 0;
+    }
+}
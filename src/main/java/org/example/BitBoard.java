@@ -0,0 +1,195 @@
+package main.java.org.example;
+
+// Packed board for the search: one long of occupied cells per side.
+// Cell index = row * size + col; bit scans therefore visit cells in row-major order.
+public final class BitBoard {
+    public static final int X = 0;
+    public static final int O = 1;
+
+    final int size;
+    final int winLength;
+    final WinLines winLines;
+    final long fullMask;
+    final Zobrist zobrist;
+    final Symmetry symmetry;
+    final LineCounters counters; // per-window mark counts: O(1) win and threat checks
+
+    final long[] stones = new long[2];
+    int sideToMove;
+    int moveCount;
+    // Zobrist hash of the board seen through each of the 8 symmetries (index 0 = as is),
+    // kept up to date by make/unmake
+    final long[] hashes = new long[Symmetry.COUNT];
+
+    public BitBoard(int size, int winLength) {
+        this.size = size;
+        this.winLength = winLength;
+        this.winLines = WinLines.of(size, winLength);
+        this.fullMask = size * size == 64 ? -1L : (1L << (size * size)) - 1;
+        this.zobrist = Zobrist.of(size * size);
+        this.symmetry = Symmetry.of(size);
+        this.counters = new LineCounters(size, size, winLength);
+    }
+
+    // Builds a board from the UI representation ("X", "O" or "")
+    public static BitBoard fromStrings(String[][] board, int winLength, String toMove) {
+        BitBoard b = new BitBoard(board.length, winLength);
+        for (int row = 0; row < b.size; row++) {
+            for (int col = 0; col < b.size; col++) {
+                String s = board[row][col];
+                if (!s.isEmpty()) b.placeStone(sideOf(s), row * b.size + col);
+            }
+        }
+        b.setSideToMove(sideOf(toMove));
+        return b;
+    }
+
+    // Snapshot of a game in progress (square boards of up to 8x8)
+    public static BitBoard of(GameState state) {
+        BitBoard b = new BitBoard(state.rows(), state.winLength());
+        b.load(state);
+        return b;
+    }
+
+    // Overwrites this board with the game's position; the sizes must match
+    public void load(GameState state) {
+        stones[X] = 0L;
+        stones[O] = 0L;
+        java.util.Arrays.fill(hashes, 0L);
+        counters.clear();
+        moveCount = 0;
+        sideToMove = X;
+        for (int cell = 0; cell < size * size; cell++) {
+            int player = state.get(cell);
+            if (player != GameState.EMPTY) placeStone(player, cell);
+        }
+        setSideToMove(state.currentPlayer());
+    }
+
+    private void placeStone(int side, int cell) {
+        stones[side] |= 1L << cell;
+        for (int s = 0; s < Symmetry.COUNT; s++) hashes[s] ^= symmetry.keys[s][side][cell];
+        counters.add(side, cell);
+        moveCount++;
+    }
+
+    private void setSideToMove(int side) {
+        if (side != sideToMove) {
+            for (int s = 0; s < Symmetry.COUNT; s++) hashes[s] ^= zobrist.sideKey;
+        }
+        sideToMove = side;
+    }
+
+    // Independent copy, e.g. for another search thread
+    public BitBoard copy() {
+        BitBoard b = new BitBoard(size, winLength);
+        b.copyFrom(this);
+        return b;
+    }
+
+    // Overwrites this board with other (same size and win length) without allocating
+    public void copyFrom(BitBoard other) {
+        stones[X] = other.stones[X];
+        stones[O] = other.stones[O];
+        sideToMove = other.sideToMove;
+        moveCount = other.moveCount;
+        System.arraycopy(other.hashes, 0, hashes, 0, hashes.length);
+        counters.copyFrom(other.counters);
+    }
+
+    public static int sideOf(String symbol) {
+        return "X".equals(symbol) ? X : O;
+    }
+
+    // Places a stone for the side to move and passes the turn
+    public void make(int cell) {
+        stones[sideToMove] |= 1L << cell;
+        updateHashes(sideToMove, cell);
+        counters.add(sideToMove, cell);
+        sideToMove ^= 1;
+        moveCount++;
+    }
+
+    // Reverts make(cell)
+    public void unmake(int cell) {
+        sideToMove ^= 1;
+        stones[sideToMove] &= ~(1L << cell);
+        updateHashes(sideToMove, cell);
+        counters.remove(sideToMove, cell);
+        moveCount--;
+    }
+
+    private void updateHashes(int side, int cell) {
+        long[][][] keys = symmetry.keys;
+        long sideKey = zobrist.sideKey;
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            hashes[s] ^= keys[s][side][cell] ^ sideKey;
+        }
+    }
+
+    public long emptyCells() {
+        return fullMask & ~(stones[X] | stones[O]);
+    }
+
+    public boolean isFull() {
+        return (stones[X] | stones[O]) == fullMask;
+    }
+
+    // True if side has a complete line through cell (only lines through the last move can be new wins)
+    public boolean hasWonAt(int side, int cell) {
+        long own = stones[side];
+        for (long line : winLines.linesThrough[cell]) {
+            if ((own & line) == line) return true;
+        }
+        return false;
+    }
+
+    // True if side has any complete line on the board: O(1) from the line counters
+    public boolean hasWon(int side) {
+        return counters.hasWon(side);
+    }
+
+    // True if side could complete a line with its next move: O(1) from the line counters
+    public boolean hasThreat(int side) {
+        return counters.threatCount(side) > 0;
+    }
+
+    // Empty cells that would complete a line for side
+    public long threatCells(int side) {
+        long own = stones[side];
+        long opp = stones[side ^ 1];
+        long cells = 0L;
+        for (long line : winLines.lines) {
+            long ownIn = own & line;
+            if ((opp & line) == 0 && Long.bitCount(ownIn) == winLength - 1) cells |= line & ~ownIn;
+        }
+        return cells;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long hash() {
+        return hashes[Symmetry.IDENTITY];
+    }
+
+    // The symmetry whose transformed position has the smallest hash; all 8 orientations
+    // of a position agree on it, so it names the position's canonical form
+    public int canonicalSymmetry() {
+        int best = 0;
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            if (hashes[s] < hashes[best]) best = s;
+        }
+        return best;
+    }
+
+    // Hash of the canonical form: identical for every rotation or reflection of this position
+    public long canonicalHash() {
+        return hashes[canonicalSymmetry()];
+    }
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+}
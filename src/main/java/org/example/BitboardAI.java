@@ -0,0 +1,478 @@
+package main.java.org.example;
+
+// Search engine over packed bitboards. Drop-in replacement for MinimaxAI:
+// same entry points, same move choice (first best move in row-major order).
+public class BitboardAI {
+    // Any value above the longest possible game keeps wins positive and losses negative at every depth
+    static final int WIN_SCORE = 10_000;
+    // Scores beyond this are wins/losses whose distance is stored relative to the node in the table
+    private static final int DECISIVE_SCORE = WIN_SCORE - 1_000;
+    private static final int INFINITY = 1_000_000;
+    private static final int NO_MOVE = -1;
+
+    // Move-ordering priorities (above any history score)
+    private static final int TABLE_MOVE_SCORE = Integer.MAX_VALUE;
+    private static final int BLOCK_BONUS = 1 << 30;
+    private static final int KILLER1_BONUS = 1 << 29;
+    private static final int KILLER2_BONUS = 1 << 28;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    public enum SearchMode {
+        MINIMAX, // plain minimax, visits every node (reference)
+        ALPHA_BETA // alpha-beta with move ordering, same result
+    }
+
+    private final int ai;
+    private final int boardSize;
+    private final int winLength;
+    private final int cells;
+    private SearchMode mode = SearchMode.ALPHA_BETA;
+    private Evaluator evaluator = Evaluator.NONE;
+    // Mixed into table keys so engines with different evaluators don't read each other's cutoff scores
+    private long evaluatorKey;
+
+    private final BitBoard board; // private copy of the position being searched
+    private final TranspositionTable table;
+    private final OpeningBook book; // solved positions, null if no book exists for this board
+
+    // Per-ply move buffers and ordering tables, allocated once per engine
+    private final int[][] moveBuffer;
+    private final int[][] scoreBuffer;
+    private final int[][] killers;
+    private final int[][] history;
+    private final int[] centerWeight;
+    private final int[] orderingNoise; // all zero except in Lazy SMP helper engines
+
+    // Search statistics and time control
+    private long nodeCount;
+    private long cutoffCount; // nodes where a move failed high
+    private long tableHits; // table probes that found an entry for the position
+    private long interiorCount; // nodes whose moves were generated
+    private int maxPly; // deepest node visited
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean stopRequested; // set from another thread to end the search early
+    private boolean sameDraftOnly; // keep depth-limited results independent of deeper cached ones
+    private int completedDepth;
+    private int lastValue; // of the best root move, for the AI
+
+    public BitboardAI(String ai, String human, int boardSize) {
+        this(ai, human, boardSize, GameSettings.defaultWinLength(boardSize));
+    }
+
+    // Square board of up to 8x8 with any win length
+    public BitboardAI(String ai, String human, int boardSize, int winLength) {
+        this.ai = BitBoard.sideOf(ai);
+        this.boardSize = boardSize;
+        this.winLength = winLength;
+        this.cells = boardSize * boardSize;
+
+        board = new BitBoard(boardSize, winLength);
+        moveBuffer = new int[cells + 1][cells];
+        scoreBuffer = new int[cells + 1][cells];
+        killers = new int[cells + 2][2];
+        history = new int[2][cells];
+        table = TranspositionTable.shared(boardSize, winLength);
+        book = OpeningBook.forBoard(boardSize, winLength);
+
+        // Cells on more win lines (the center) are tried first
+        WinLines lines = WinLines.of(boardSize, winLength);
+        centerWeight = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            centerWeight[cell] = lines.linesThrough[cell].length;
+        }
+        orderingNoise = new int[cells];
+    }
+
+    // Makes the running search (on another thread), and any later one, return as soon as possible until clearStop()
+    public void stop() {
+        stopRequested = true;
+    }
+
+    // Lets searches run again after stop(); the caller decides when, so a stop() can't be lost to a search starting
+    public void clearStop() {
+        stopRequested = false;
+    }
+
+    // Perturbs move ordering between equally ranked moves, so parallel helpers explore different subtrees first
+    void setOrderingSeed(int seed) {
+        java.util.SplittableRandom random = new java.util.SplittableRandom(seed);
+        for (int cell = 0; cell < cells; cell++) {
+            orderingNoise[cell] = seed == 0 ? 0 : random.nextInt(8);
+        }
+    }
+
+    public void setSearchMode(SearchMode mode) {
+        this.mode = mode;
+    }
+
+    // Scores the positions where a depth-limited search stops; full searches never use it
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+        this.evaluatorKey = evaluator == Evaluator.NONE ? 0L
+                : evaluator.getClass().getName().hashCode() * 0x9E3779B97F4A7C15L;
+    }
+
+    // Nodes visited by the last search
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    // Beta cutoffs of the last search
+    public long getCutoffCount() {
+        return cutoffCount;
+    }
+
+    // Table probes of the last search that found an entry
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    // Deepest ply the last search reached, quiet extensions and all
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    // Moves searched per node that searched any (lower is better ordering)
+    public double getBranchingFactor() {
+        return interiorCount == 0 ? 0 : (double) nodeCount / interiorCount;
+    }
+
+    // Cache shared with every engine of this board size and win length
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Value of the best move found by the last search, for the AI: WIN_SCORE - (n - 1) for a
+     * win n plies away (the move itself counted), -(WIN_SCORE - (n - 1)) for a loss, 0 for a draw.
+     * Exact after solve; a depth-limited search scores the positions where it stopped instead.
+     */
+    public int getLastValue() {
+        return lastValue;
+    }
+
+    // Deepest fully completed iteration of the last iterative-deepening search
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // Public method: Hard difficulty (full search)
+    public int[] findBestMove(String[][] board) {
+        return toRowCol(bestCell(toBitBoard(board)));
+    }
+
+    // Public method: Medium difficulty (depth-limited search)
+    public int[] findBestMoveWithDepthLimit(String[][] board, int depthLimit) {
+        return toRowCol(bestCellWithDepthLimit(toBitBoard(board), depthLimit));
+    }
+
+    public int[] findBestMoveIterative(String[][] board, long timeBudgetMillis) {
+        return toRowCol(bestCellIterative(toBitBoard(board), timeBudgetMillis));
+    }
+
+    /*
+     * Cell-index versions of the above, for callers that already hold a position
+     * (the AI side must be to move). The position itself is not modified.
+     */
+
+    public int bestCell(BitBoard position) {
+        startSearch(position, Long.MAX_VALUE);
+        int cell = bookMove();
+        return cell != NO_MOVE ? cell : searchRoot(Integer.MAX_VALUE, NO_MOVE);
+    }
+
+    public int bestCellWithDepthLimit(BitBoard position, int depthLimit) {
+        startSearch(position, Long.MAX_VALUE);
+        sameDraftOnly = depthLimit != Integer.MAX_VALUE;
+        return searchRoot(depthLimit, NO_MOVE);
+    }
+
+    /**
+     * Full search without the opening book, so the value is known as well (getLastValue).
+     * Returns the same cell as bestCell, or -1 if the time budget ran out first.
+     */
+    public int solve(BitBoard position, long timeBudgetMillis) {
+        startSearch(position, timeBudgetMillis == Long.MAX_VALUE ? Long.MAX_VALUE
+                : System.nanoTime() + timeBudgetMillis * 1_000_000L);
+        int cell = searchRoot(Integer.MAX_VALUE, NO_MOVE);
+        return aborted ? NO_MOVE : cell;
+    }
+
+    /**
+     * Iterative deepening: searches depth limits 0, 1, 2, ... until the whole game tree is
+     * covered or the time budget runs out, and returns the best move of the deepest
+     * completed iteration. The final iteration gives the same move as findBestMove.
+     */
+    public int bestCellIterative(BitBoard position, long timeBudgetMillis) {
+        startSearch(position, System.nanoTime() + timeBudgetMillis * 1_000_000L);
+        int empty = Long.bitCount(this.board.emptyCells());
+        int best = bookMove();
+        completedDepth = -1;
+        if (best != NO_MOVE) {
+            completedDepth = empty; // solved position: as good as a full search
+            return best;
+        }
+
+        for (int depthLimit = 0; depthLimit < empty; depthLimit++) {
+            int move = searchRoot(depthLimit, best);
+            if (aborted) break;
+            best = move;
+            completedDepth = depthLimit;
+        }
+        if (best == NO_MOVE) {
+            // Not even depth 0 finished: fall back to the first free cell
+            long free = this.board.emptyCells();
+            best = free == 0 ? NO_MOVE : Long.numberOfTrailingZeros(free);
+        }
+        return best;
+    }
+
+    private BitBoard toBitBoard(String[][] board) {
+        return BitBoard.fromStrings(board, winLength, ai == BitBoard.X ? "X" : "O");
+    }
+
+    private void startSearch(BitBoard position, long deadline) {
+        table.newSearch();
+        prepare(position, deadline, false);
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    // Sets up a search of a private copy of position; also used by ParallelSearch workers,
+    // which share the table but not the per-search buffers
+    void prepare(BitBoard position, long deadline, boolean sameDraftOnly) {
+        board.copyFrom(position);
+        this.deadline = deadline;
+        this.sameDraftOnly = sameDraftOnly;
+        this.aborted = false;
+        this.nodeCount = 0;
+        this.cutoffCount = 0;
+        this.tableHits = 0;
+        this.interiorCount = 1; // the root
+        this.maxPly = 0;
+        for (int[] k : killers) {
+            k[0] = NO_MOVE;
+            k[1] = NO_MOVE;
+        }
+        java.util.Arrays.fill(history[0], 0);
+        java.util.Arrays.fill(history[1], 0);
+    }
+
+    // Whether the opening book answers position, so no search is needed there
+    public boolean inBook(BitBoard position) {
+        return book != null && book.bestCell(position) != NO_MOVE;
+    }
+
+    // Full-search answer straight from the opening book, or NO_MOVE if the position isn't in it
+    int bookMove() {
+        return book == null ? NO_MOVE : book.bestCell(board);
+    }
+
+    private int[] toRowCol(int cell) {
+        return cell < 0 ? new int[] { -1, -1 } : new int[] { cell / boardSize, cell % boardSize };
+    }
+
+    /**
+     * Returns the first best cell in row-major order, or -1 if the board is full.
+     * firstMove (if any) is searched first to narrow the window; moves that precede it in
+     * row-major order are then searched one point wider so that ties still go to them.
+     */
+    int searchRoot(int depthLimit, int firstMove) {
+        int bestVal = -INFINITY;
+        int bestCell = NO_MOVE;
+        // A move that mirrors an earlier cell of a symmetric position has the same value; skip it
+        int invariants = board.symmetry.invariants(board.stones[BitBoard.X], board.stones[BitBoard.O]);
+
+        if (firstMove != NO_MOVE) {
+            bestVal = searchRootMove(firstMove, depthLimit, -INFINITY);
+            bestCell = firstMove;
+        }
+
+        long empty = board.emptyCells();
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            if (cell == firstMove || board.symmetry.isDuplicateMove(invariants, cell)) continue;
+
+            int alpha = (firstMove != NO_MOVE && cell < firstMove) ? bestVal - 1 : bestVal;
+            int moveVal = searchRootMove(cell, depthLimit, alpha);
+            if (aborted) return bestCell;
+
+            if (moveVal > bestVal || (moveVal == bestVal && cell < bestCell)) {
+                bestVal = moveVal;
+                bestCell = cell;
+            }
+        }
+        lastValue = bestVal;
+        return bestCell;
+    }
+
+    // Value of a root move from the AI's point of view; exact when above alpha
+    int searchRootMove(int cell, int depthLimit, int alpha) {
+        board.make(cell);
+        int val;
+        if (mode == SearchMode.MINIMAX) {
+            val = minimax(cell, 0, false, depthLimit);
+        } else {
+            val = -alphaBeta(cell, 1, depthLimit, -INFINITY, -alpha);
+        }
+        board.unmake(cell);
+        return val;
+    }
+
+    // Plain minimax over the bitboard; lastCell is the move that led to this node
+    private int minimax(int lastCell, int depth, boolean isMaximizing, int depthLimit) {
+        nodeCount++;
+        // Only the player who just moved can have completed a line
+        int lastMover = board.sideToMove ^ 1;
+        if (board.hasWonAt(lastMover, lastCell))
+            return lastMover == ai ? WIN_SCORE - depth : -WIN_SCORE + depth;
+        if (board.isFull()) return 0;
+        if (depth >= depthLimit) { // stop searching deeper
+            int val = evaluator.evaluate(board.counters, board.sideToMove);
+            return board.sideToMove == ai ? val : -val;
+        }
+
+        int best = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long empty = board.emptyCells();
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+
+            board.make(cell);
+            int val = minimax(cell, depth + 1, !isMaximizing, depthLimit);
+            board.unmake(cell);
+
+            best = isMaximizing ? Math.max(best, val) : Math.min(best, val);
+        }
+        return best;
+    }
+
+    // Negamax alpha-beta; the value is from the point of view of the side to move at ply
+    private int alphaBeta(int lastCell, int ply, int depthLimit, int alpha, int beta) {
+        nodeCount++;
+        if ((nodeCount & 1023) == 0 && (stopRequested || System.nanoTime() > deadline)) aborted = true;
+        if (aborted) return 0;
+        if (ply > maxPly) maxPly = ply;
+
+        int depth = ply - 1; // MinimaxAI counts depth from the root's children
+        int side = board.sideToMove;
+        if (board.hasWon(side ^ 1)) return -(WIN_SCORE - depth);
+        if (board.isFull()) return 0;
+        if (depth >= depthLimit) return evaluator.evaluate(board.counters, board.sideToMove);
+
+        long empty = board.emptyCells();
+        // Remaining plies this node is searched to; a full search reaches the end of the game
+        int draft = Math.min(depthLimit - depth, Long.bitCount(empty));
+        int alphaOrig = alpha;
+
+        // The table is keyed by the canonical orientation; moves are stored in that orientation
+        int sym = board.canonicalSymmetry();
+        long key = board.hashes[sym] ^ evaluatorKey;
+        long entry = table.probe(key);
+        int tableMove = NO_MOVE;
+        if (entry != 0) {
+            tableHits++;
+            tableMove = TranspositionTable.move(entry);
+            if (tableMove != NO_MOVE) tableMove = board.symmetry.invert(sym, tableMove);
+            int entryDraft = TranspositionTable.draft(entry);
+            if (sameDraftOnly ? entryDraft == draft : entryDraft >= draft) {
+                int val = fromTable(TranspositionTable.value(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && val >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && val <= alpha))
+                    return val;
+            }
+        }
+
+        // Winning right now is the best any move can score
+        if (board.hasThreat(side)) return WIN_SCORE - ply;
+        // Cells the opponent would win on next move (rare, so only then are they located)
+        long oppThreats = board.hasThreat(side ^ 1) ? board.threatCells(side ^ 1) : 0L;
+
+        // Generate and score moves
+        int[] moves = moveBuffer[ply];
+        int[] scores = scoreBuffer[ply];
+        int[] killer = killers[ply];
+        int[] sideHistory = history[side];
+        int count = 0;
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            int score = sideHistory[cell] + centerWeight[cell] + orderingNoise[cell];
+            if (cell == tableMove) score = TABLE_MOVE_SCORE;
+            else if ((oppThreats & (1L << cell)) != 0) score += BLOCK_BONUS;
+            else if (cell == killer[0]) score += KILLER1_BONUS;
+            else if (cell == killer[1]) score += KILLER2_BONUS;
+            moves[count] = cell;
+            scores[count] = score;
+            count++;
+        }
+        interiorCount++;
+
+        int best = -INFINITY;
+        int bestMove = NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            // Selection sort step: bring the highest-scored remaining move to position i
+            int pick = i;
+            for (int j = i + 1; j < count; j++) {
+                if (scores[j] > scores[pick]) pick = j;
+            }
+            int cell = moves[pick];
+            moves[pick] = moves[i];
+            scores[pick] = scores[i];
+            moves[i] = cell;
+
+            board.make(cell);
+            int val = -alphaBeta(cell, ply + 1, depthLimit, -beta, -alpha);
+            board.unmake(cell);
+            if (aborted) return 0;
+
+            if (val > best) {
+                best = val;
+                bestMove = cell;
+            }
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) {
+                cutoffCount++;
+                if (killer[0] != cell) {
+                    killer[1] = killer[0];
+                    killer[0] = cell;
+                }
+                int remaining = count - 1;
+                sideHistory[cell] += remaining * remaining;
+                if (sideHistory[cell] > HISTORY_LIMIT) ageHistory();
+                break;
+            }
+        }
+
+        int bound = best <= alphaOrig ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        int storedMove = bestMove == NO_MOVE ? NO_MOVE : board.symmetry.apply(sym, bestMove);
+        table.store(key, toTable(best, ply), draft, bound, storedMove);
+        return best;
+    }
+
+    // Wins and losses are stored as distance from the node, not from the root
+    private static int toTable(int value, int ply) {
+        if (value > DECISIVE_SCORE) return value + ply;
+        if (value < -DECISIVE_SCORE) return value - ply;
+        return value;
+    }
+
+    private static int fromTable(int value, int ply) {
+        if (value > DECISIVE_SCORE) return value - ply;
+        if (value < -DECISIVE_SCORE) return value + ply;
+        return value;
+    }
+
+    private void ageHistory() {
+        for (int[] h : history) {
+            for (int cell = 0; cell < h.length; cell++) h[cell] >>= 1;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package main.java.org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The board as a single painted component instead of a grid of buttons: one object however
+ * large the board is. Marks are drawn from glyph images rendered once per cell size, and a
+ * changed cell repaints only its own rectangle, so a move costs the same on 3x3 and 15x15.
+ * Reused for every game: setBoard() resizes it in place.
+ */
+public class BoardView extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    // Cell styles: plain, or highlighted as the last move, part of the winning line, or a tie
+    public static final int PLAIN = 0;
+    public static final int LAST_MOVE = 1;
+    public static final int WIN = 2;
+    public static final int TIE = 3;
+
+    private static final Color BACKGROUND = Color.darkGray;
+    private static final Color HIGHLIGHT = Color.gray;
+    private static final Color GRID = Color.gray;
+    // Mark color per style
+    private static final Color[] MARK_COLORS = { Color.white, Color.white, Color.green, Color.orange };
+    private static final int GAP = 2; // grid line width
+
+    private int rows;
+    private int cols;
+    private byte[] marks = new byte[0]; // GameState.EMPTY, X or O per cell
+    private byte[] styles = new byte[0];
+    private IntConsumer cellListener; // clicks on a cell, null for a board that is only shown
+
+    // Glyphs of X and O in each style, rendered for glyphSize and redrawn when the cell size changes
+    private final BufferedImage[][] glyphs = new BufferedImage[2][MARK_COLORS.length];
+    private int glyphSize;
+
+    public BoardView() {
+        setOpaque(true);
+        setPreferredSize(new Dimension(600, 480));
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int cell = cellAt(e.getX(), e.getY());
+                if (cell >= 0 && cellListener != null && SwingUtilities.isLeftMouseButton(e)) cellListener.accept(cell);
+            }
+        });
+    }
+
+    // Called with the cell clicked; the listener decides whether it is a legal move
+    public void setCellListener(IntConsumer cellListener) {
+        this.cellListener = cellListener;
+        setCursor(Cursor.getPredefinedCursor(cellListener != null ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
+    }
+
+    // Shows an empty rows x cols board; the cell arrays are only reallocated when the board grows
+    public void setBoard(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        if (marks.length < rows * cols) {
+            marks = new byte[rows * cols];
+            styles = new byte[rows * cols];
+        }
+        clear();
+    }
+
+    // Empties every cell
+    public void clear() {
+        Arrays.fill(marks, (byte) GameState.EMPTY);
+        Arrays.fill(styles, (byte) PLAIN);
+        repaint();
+    }
+
+    // Sets one cell's mark (GameState.EMPTY, X or O) and style; repaints just that cell if it changed
+    public void setCell(int cell, int mark, int style) {
+        if (marks[cell] == mark && styles[cell] == style) return;
+        marks[cell] = (byte) mark;
+        styles[cell] = (byte) style;
+        repaint(cellBounds(cell));
+    }
+
+    public void setMark(int cell, int mark) {
+        setCell(cell, mark, styles[cell]);
+    }
+
+    public void setStyle(int cell, int style) {
+        setCell(cell, marks[cell], style);
+    }
+
+    // Copies every cell of state, in the plain style
+    public void show(GameState state) {
+        for (int cell = 0; cell < rows * cols; cell++) setCell(cell, state.get(cell), PLAIN);
+    }
+
+    /* -------------------- Geometry -------------------- */
+
+    // Side of a cell in pixels, grid line included: the largest square cells that fit
+    private int cellSize() {
+        return rows == 0 ? 0 : Math.max(GAP + 1, Math.min(getWidth() / cols, getHeight() / rows));
+    }
+
+    private int left(int size) {
+        return (getWidth() - size * cols) / 2;
+    }
+
+    private int top(int size) {
+        return (getHeight() - size * rows) / 2;
+    }
+
+    private Rectangle cellBounds(int cell) {
+        int size = cellSize();
+        return new Rectangle(left(size) + cell % cols * size, top(size) + cell / cols * size, size, size);
+    }
+
+    // Cell under the point, or -1 outside the board
+    private int cellAt(int x, int y) {
+        int size = cellSize();
+        if (size == 0) return -1;
+        int col = Math.floorDiv(x - left(size), size);
+        int row = Math.floorDiv(y - top(size), size);
+        return row < 0 || row >= rows || col < 0 || col >= cols ? -1 : row * cols + col;
+    }
+
+    /* -------------------- Painting -------------------- */
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(BACKGROUND);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        int size = cellSize();
+        if (size == 0) return;
+        if (size != glyphSize) renderGlyphs(size);
+        int x0 = left(size);
+        int y0 = top(size);
+        g.setColor(GRID);
+        g.fillRect(x0, y0, size * cols, size * rows);
+
+        // Only the cells inside the clip: after setCell that is the one cell that changed
+        int firstCol = Math.max(0, (clip.x - x0) / size);
+        int lastCol = Math.min(cols - 1, Math.floorDiv(clip.x + clip.width - 1 - x0, size));
+        int firstRow = Math.max(0, (clip.y - y0) / size);
+        int lastRow = Math.min(rows - 1, Math.floorDiv(clip.y + clip.height - 1 - y0, size));
+        int inner = size - GAP;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int cell = row * cols + col;
+                int x = x0 + col * size + GAP / 2;
+                int y = y0 + row * size + GAP / 2;
+                g.setColor(styles[cell] == PLAIN ? BACKGROUND : HIGHLIGHT);
+                g.fillRect(x, y, inner, inner);
+                if (marks[cell] != GameState.EMPTY) g.drawImage(glyphs[marks[cell]][styles[cell]], x, y, null);
+            }
+        }
+    }
+
+    // Draws X and O once per style for cells of the given size
+    private void renderGlyphs(int size) {
+        int inner = size - GAP;
+        Font font = new Font("Arial", Font.BOLD, Math.max(6, Math.min(80, inner * 4 / 5)));
+        for (int mark = GameState.X; mark <= GameState.O; mark++) {
+            String symbol = GameState.symbol(mark);
+            for (int style = 0; style < MARK_COLORS.length; style++) {
+                BufferedImage image = new BufferedImage(inner, inner, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g.setFont(font);
+                g.setColor(MARK_COLORS[style]);
+                FontMetrics metrics = g.getFontMetrics();
+                int x = (inner - metrics.stringWidth(symbol)) / 2;
+                int y = (inner - metrics.getHeight()) / 2 + metrics.getAscent();
+                g.drawString(symbol, x, y);
+                g.dispose();
+                glyphs[mark][style] = image;
+            }
+        }
+        glyphSize = size;
+    }
+}
@@ -0,0 +1,58 @@
+package main.java.org.example;
+
+import javax.swing.*;
+
+/**
+ * Measures how responsive the Swing event thread is: a timer fires every PERIOD_MILLIS
+ * and any extra delay between two ticks is time the EDT was busy with something else.
+ * Used while the AI is thinking to check that the search does not block the UI.
+ */
+public class EdtLatencyMonitor {
+    private static final int PERIOD_MILLIS = 5;
+
+    private final Timer timer;
+    private long lastTick;
+    private long maxLagNanos;
+    private long totalLagNanos;
+    private long samples;
+
+    public EdtLatencyMonitor() {
+        timer = new Timer(PERIOD_MILLIS, e -> tick());
+        timer.setCoalesce(false);
+    }
+
+    // Call on the EDT
+    public void start() {
+        maxLagNanos = 0;
+        totalLagNanos = 0;
+        samples = 0;
+        lastTick = System.nanoTime();
+        timer.start();
+    }
+
+    // Call on the EDT
+    public void stop() {
+        timer.stop();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        long lag = Math.max(0, now - lastTick - PERIOD_MILLIS * 1_000_000L);
+        lastTick = now;
+        maxLagNanos = Math.max(maxLagNanos, lag);
+        totalLagNanos += lag;
+        samples++;
+    }
+
+    public double getMaxLagMillis() {
+        return maxLagNanos / 1e6;
+    }
+
+    public double getAverageLagMillis() {
+        return samples == 0 ? 0 : totalLagNanos / 1e6 / samples;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+}
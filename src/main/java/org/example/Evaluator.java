@@ -0,0 +1,18 @@
+package main.java.org.example;
+
+/**
+ * Static score of a position where a depth-limited search stops. Only called on positions
+ * that are neither won nor full. The score is from the point of view of the side to move
+ * and must stay within +-MAX_SCORE, well below any win or loss score, so a proven result
+ * always outranks a heuristic one.
+ */
+public interface Evaluator {
+    int MAX_SCORE = 4_096;
+
+    // Scores every unfinished position as a draw, like MinimaxAI.evaluate()
+    Evaluator NONE = (counters, sideToMove) -> 0;
+
+    // counters describe the position; both board representations keep them up to date
+    int evaluate(LineCounters counters, int sideToMove);
+
+}
@@ -0,0 +1,123 @@
+package main.java.org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only binary log of played games, read back with GameLogReader.
+ *
+ * File layout: magic (int), version (byte), then one record per game:
+ * length of the rest (varint), rows, cols, win length (bytes), players (byte: X in the low
+ * nibble, O in the high one, as GameRecord.PLAYERS indices), flags (byte: result in bits 0-1,
+ * bit 2 set if O moved first), start time in epoch seconds (varint), move count (varint),
+ * one byte per move (the cell), then the milliseconds spent on each move (varints).
+ * A 3x3 game takes about 20 bytes. A record cut short by a crash is ignored by the reader.
+ */
+public final class GameLog implements Closeable {
+    static final int MAGIC = 0x54545447; // "TTTG"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5;
+    // Largest encoded record: length, fixed bytes, start time, move count, then per move a cell and a 5-byte varint
+    static final int MAX_RECORD_BYTES = 5 + 5 + 10 + 5 + MnkBoard.MAX_CELLS * 6;
+
+    // Where the game keeps its log (games.bin)
+    private static final Path RECORD_DIR = Path.of(System.getProperty("tictactoe.records", "records"));
+
+    private static GameLog shared;
+    private static boolean sharedFailed;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD_BYTES);
+
+    private GameLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static Path defaultFile() {
+        return RECORD_DIR.resolve("games.bin");
+    }
+
+    // The game's own log at defaultFile(), opened on first use; null if it can't be written
+    public static synchronized GameLog shared() {
+        if (shared == null && !sharedFailed) {
+            try {
+                shared = open(defaultFile());
+            } catch (IOException e) {
+                sharedFailed = true;
+                System.err.println("Games will not be recorded: " + e);
+            }
+        }
+        return shared;
+    }
+
+    // Opens file for appending, creating it (and its directory) if needed
+    public static GameLog open(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).put((byte) VERSION).flip();
+            while (header.hasRemaining()) channel.write(header);
+        } else {
+            // Drop a record torn by a crash, or every game appended after it would be unreadable
+            long valid;
+            try (GameLogReader reader = GameLogReader.open(file)) {
+                valid = reader.validLength();
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            if (valid < channel.size()) channel.truncate(valid);
+        }
+        return new GameLog(channel);
+    }
+
+    // Appends one game; safe to call from several threads
+    public synchronized void append(GameRecord record) throws IOException {
+        buffer.clear();
+        buffer.position(5); // room for the length, filled in below
+        buffer.put((byte) record.rows()).put((byte) record.cols()).put((byte) record.winLength());
+        int players = GameRecord.PLAYERS.indexOf(record.xPlayer()) | GameRecord.PLAYERS.indexOf(record.oPlayer()) << 4;
+        buffer.put((byte) players);
+        buffer.put((byte) (record.result() | (record.firstPlayer() == GameState.O ? 4 : 0)));
+        putVarint(buffer, record.startSeconds());
+        putVarint(buffer, record.moveCount());
+        buffer.put(record.moves());
+        for (int millis : record.moveMillis()) putVarint(buffer, Math.max(0, millis));
+
+        // Move the body up against its varint length prefix
+        int bodyLength = buffer.position() - 5;
+        int prefix = varintLength(bodyLength);
+        int start = 5 - prefix;
+        buffer.position(start);
+        putVarint(buffer, bodyLength);
+        buffer.limit(5 + bodyLength).position(start);
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    // Unsigned LEB128: 7 bits per byte, high bit set on all but the last
+    static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int varintLength(long value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) length++;
+        return length;
+    }
+}
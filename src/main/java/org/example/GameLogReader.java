@@ -0,0 +1,204 @@
+package main.java.org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped reader of a GameLog file. scan() walks every record without allocating:
+ * the visitor gets a flyweight Entry that reads its fields straight from the mapping and
+ * is only valid during the call. Files are mapped in windows of up to 1 GB, so logs larger
+ * than a single mapping can hold are fine.
+ */
+public final class GameLogReader implements Closeable {
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size; // bytes in the file when it was opened; later appends are not seen
+    private long validLength; // end of the last complete record seen by scan()
+
+    /** Called once per record, in the order they were written. */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(Entry entry);
+    }
+
+    private GameLogReader(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    public static GameLogReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(GameLog.HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) ;
+        if (header.hasRemaining() || header.getInt(0) != GameLog.MAGIC || header.get(4) != GameLog.VERSION) {
+            channel.close();
+            throw new IOException(file + " is not a game log");
+        }
+        return new GameLogReader(channel, channel.size());
+    }
+
+    // Visits every complete record and returns how many there were
+    public long scan(Visitor visitor) throws IOException {
+        Entry entry = new Entry();
+        long count = 0;
+        long position = GameLog.HEADER_BYTES;
+        while (position < size) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, WINDOW_BYTES));
+            int offset = 0;
+            int limit = window.limit();
+            while (true) {
+                // The length prefix and the record it announces must both be inside the window
+                int length = 0;
+                int p = offset;
+                int shift = 0;
+                byte b;
+                do {
+                    if (p == limit) break;
+                    b = window.get(p++);
+                    length |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                if (p == limit || p + length > limit || shift == 0) break;
+                entry.set(window, position + offset, p);
+                visitor.visit(entry);
+                count++;
+                offset = p + length;
+            }
+            if (offset == 0) break; // a torn record at the end of the file
+            position += offset;
+        }
+        validLength = position;
+        return count;
+    }
+
+    // Bytes of the file up to the end of its last complete record
+    public long validLength() throws IOException {
+        scan(entry -> { });
+        return validLength;
+    }
+
+    // The record starting at offset (as returned by Entry.offset())
+    public GameRecord read(long offset) throws IOException {
+        int length = (int) Math.min(size - offset, GameLog.MAX_RECORD_BYTES);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) ;
+        Entry entry = new Entry();
+        int p = 0;
+        while (buffer.get(p++) < 0) ; // skip the length
+        entry.set(buffer, offset, p);
+        return entry.toRecord();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** A record in the mapped file. Field getters don't allocate; toRecord() copies it out. */
+    public static final class Entry {
+        private ByteBuffer buffer;
+        private long offset;
+        private int body; // index of the rows byte
+        private int moveCount;
+        private int movesStart;
+
+        void set(ByteBuffer buffer, long offset, int body) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.body = body;
+            int p = body + 5;
+            while (buffer.get(p++) < 0) ; // start time
+            int count = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(p++);
+                count |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            this.moveCount = count;
+            this.movesStart = p;
+        }
+
+        // Position of the record in the file, for GameLogReader.read
+        public long offset() {
+            return offset;
+        }
+
+        public int rows() {
+            return buffer.get(body);
+        }
+
+        public int cols() {
+            return buffer.get(body + 1);
+        }
+
+        public int winLength() {
+            return buffer.get(body + 2);
+        }
+
+        public String xPlayer() {
+            return GameRecord.PLAYERS.get(buffer.get(body + 3) & 0x0F);
+        }
+
+        public String oPlayer() {
+            return GameRecord.PLAYERS.get((buffer.get(body + 3) >> 4) & 0x0F);
+        }
+
+        // GameState.X, GameState.O, GameRecord.TIE or GameRecord.UNFINISHED
+        public int result() {
+            return buffer.get(body + 4) & 3;
+        }
+
+        public int firstPlayer() {
+            return (buffer.get(body + 4) & 4) != 0 ? GameState.O : GameState.X;
+        }
+
+        public long startSeconds() {
+            long value = 0;
+            int shift = 0;
+            int p = body + 5;
+            byte b;
+            do {
+                b = buffer.get(p++);
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        public int moveCount() {
+            return moveCount;
+        }
+
+        public int move(int i) {
+            return buffer.get(movesStart + i) & 0xFF;
+        }
+
+        public GameRecord toRecord() {
+            byte[] moves = new byte[moveCount];
+            int[] millis = new int[moveCount];
+            for (int i = 0; i < moveCount; i++) moves[i] = buffer.get(movesStart + i);
+            int p = movesStart + moveCount;
+            for (int i = 0; i < moveCount; i++) {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = buffer.get(p++);
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                millis[i] = value;
+            }
+            return new GameRecord(rows(), cols(), winLength(), xPlayer(), oPlayer(), firstPlayer(), result(),
+                    startSeconds(), moves, millis);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package main.java.org.example;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One finished (or abandoned) game as stored in the game log: the board, who played each
+ * side ("Human" or a difficulty), the result, when it started, the moves in order and the
+ * milliseconds spent on each of them.
+ */
+public record GameRecord(int rows, int cols, int winLength, String xPlayer, String oPlayer, int firstPlayer,
+                         int result, long startSeconds, byte[] moves, int[] moveMillis) {
+    // Results besides a win for GameState.X or GameState.O
+    public static final int TIE = 2;
+    public static final int UNFINISHED = 3;
+
+    // Who can play a side; the index is what the log stores
+    public static final List<String> PLAYERS = List.of("Human", "Easy", "Medium", "Hard", "MCTS");
+
+    public GameRecord {
+        if (rows * cols > MnkBoard.MAX_CELLS || moves.length > rows * cols || moveMillis.length != moves.length)
+            throw new IllegalArgumentException("Inconsistent game record");
+        if (!PLAYERS.contains(xPlayer) || !PLAYERS.contains(oPlayer))
+            throw new IllegalArgumentException("Unknown player " + xPlayer + " / " + oPlayer);
+    }
+
+    // Record of the game played so far in state
+    public static GameRecord of(GameState state, String xPlayer, String oPlayer, long startSeconds, int[] moveMillis) {
+        int turns = state.turns();
+        byte[] moves = new byte[turns];
+        for (int i = 0; i < turns; i++) moves[i] = (byte) state.moveAt(i);
+        int result = state.getWinner() != GameState.EMPTY ? state.getWinner() : state.isTie() ? TIE : UNFINISHED;
+        return new GameRecord(state.rows(), state.cols(), state.winLength(), xPlayer, oPlayer, state.firstPlayer(),
+                result, startSeconds, moves, Arrays.copyOf(moveMillis, turns));
+    }
+
+    public int moveCount() {
+        return moves.length;
+    }
+
+    // Cell of the given move (0 = the first)
+    public int move(int i) {
+        return moves[i] & 0xFF;
+    }
+
+    // Replays the first count moves on a new game
+    public GameState replay(int count) {
+        GameState state = new GameState(rows, cols, winLength, firstPlayer);
+        for (int i = 0; i < count; i++) state.play(move(i));
+        return state;
+    }
+
+    public String resultText() {
+        return result == TIE ? "tie" : result == UNFINISHED ? "unfinished" : GameState.symbol(result) + " won";
+    }
+}
@@ -0,0 +1,453 @@
+package main.java.org.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless game server: any number of human-vs-human and human-vs-AI games over TCP with a
+ * line-based protocol. One thread runs a non-blocking selector and owns every game; AI moves
+ * are searched on a fixed pool so a long search never holds up the other connections.
+ *
+ * <pre>
+ * client: NEW &lt;rows&gt;x&lt;cols&gt; &lt;k&gt; &lt;Human|Easy|Medium|Hard|MCTS&gt; [X|O]
+ *         MOVE &lt;cell&gt;
+ *         QUIT                     (leaves the current game)
+ * server: WAIT                     (queued for a human opponent)
+ *         START &lt;game&gt; &lt;X|O&gt;       (the side you play; X moves first)
+ *         MOVED &lt;X|O&gt; &lt;cell&gt;        (every move, your own included)
+ *         END &lt;X|O|TIE|ABANDONED&gt;
+ *         ERR &lt;reason&gt;
+ * </pre>
+ * Cells count row by row from 0. After END the connection may start another game.
+ */
+public class GameServer implements AutoCloseable {
+    // Longest line accepted from a client, and most output buffered for one that doesn't read
+    private static final int MAX_LINE = 128;
+    private static final int MAX_PENDING_OUTPUT = 64 * 1024;
+    private static final int BACKLOG = 4096;
+    // AI players kept per pool thread (each board size, difficulty and side is one player)
+    private static final int CACHED_PLAYERS = 8;
+    // How long accepting pauses after it failed (out of file descriptors), unless a connection closes first
+    private static final long ACCEPT_RETRY_MILLIS = 100;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final SelectionKey acceptKey;
+    private final ExecutorService aiPool;
+    private final long moveBudgetMillis;
+    private final long mctsBudgetMillis;
+    private final int mctsThreads;
+    private GameLog log; // every finished or abandoned game is appended here when set
+
+    // Searches that finished on the pool, applied by the selector thread
+    private final ConcurrentLinkedQueue<Runnable> aiMoves = new ConcurrentLinkedQueue<>();
+    // Connections waiting for a human opponent, by "rows cols k"
+    private final Map<String, Connection> waiting = new HashMap<>();
+    private final ThreadLocal<Map<String, AiPlayer>> players = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AiPlayer> eldest) {
+                    return size() > CACHED_PLAYERS;
+                }
+            });
+
+    private volatile boolean running = true;
+    private int nextGameId = 1;
+    private boolean acceptPaused;
+    // Written by the selector thread only
+    private volatile int connections;
+    private volatile long gamesStarted;
+    private volatile long gamesFinished;
+    private volatile long movesPlayed;
+
+    /**
+     * Server listening on address (port 0 picks a free one). aiThreads threads search AI moves;
+     * the budgets are as for AiPlayer.
+     */
+    public GameServer(InetSocketAddress address, int aiThreads, long moveBudgetMillis, long mctsBudgetMillis,
+                      int mctsThreads) throws IOException {
+        this.moveBudgetMillis = moveBudgetMillis;
+        this.mctsBudgetMillis = mctsBudgetMillis;
+        this.mctsThreads = mctsThreads;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(address, BACKLOG);
+        server.configureBlocking(false);
+        this.acceptKey = server.register(selector, SelectionKey.OP_ACCEPT);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.aiPool = Executors.newFixedThreadPool(aiThreads, r -> {
+            Thread t = new Thread(r, "game-server-ai-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Records every game played from now on in log
+    public void setGameLog(GameLog log) {
+        this.log = log;
+    }
+
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public long getGamesStarted() {
+        return gamesStarted;
+    }
+
+    public long getGamesFinished() {
+        return gamesFinished;
+    }
+
+    public long getMovesPlayed() {
+        return movesPlayed;
+    }
+
+    // Serves connections on the calling thread until close()
+    public void run() throws IOException {
+        try {
+            while (running) {
+                selector.select(acceptPaused ? ACCEPT_RETRY_MILLIS : 0);
+                if (acceptPaused) resumeAccepting();
+                for (Runnable move; (move = aiMoves.poll()) != null; ) move.run();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection c = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) read(c);
+                        if (key.isValid() && key.isWritable()) flush(c);
+                    } catch (IOException e) {
+                        disconnect(c); // reset by the peer
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) key.channel().close();
+            selector.close();
+            aiPool.shutdownNow();
+        }
+    }
+
+    // Stops run() and the AI pool; safe from any thread
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /*
+     * Takes every pending connection. When accepting fails (typically EMFILE: out of file
+     * descriptors) the games in progress carry on; accepting pauses until a connection closes
+     * or ACCEPT_RETRY_MILLIS pass, since the pending connection would wake the selector at once.
+     */
+    private void accept() {
+        SocketChannel channel;
+        try {
+            while ((channel = server.accept()) != null) {
+                try {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    Connection c = new Connection(channel);
+                    c.key = channel.register(selector, SelectionKey.OP_READ, c);
+                    connections++;
+                } catch (IOException e) {
+                    System.err.println("Could not set up connection: " + e);
+                    channel.close();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not accept connections: " + e);
+            acceptKey.interestOps(0);
+            acceptPaused = true;
+        }
+    }
+
+    private void resumeAccepting() {
+        acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        acceptPaused = false;
+    }
+
+    private void read(Connection c) throws IOException {
+        if (c.channel.read(c.in) < 0) {
+            disconnect(c);
+            return;
+        }
+        ByteBuffer in = c.in;
+        in.flip();
+        int start = 0;
+        for (int i = 0; i < in.limit() && c.key.isValid(); i++) {
+            if (in.get(i) != '\n') continue;
+            int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+            handle(c, new String(in.array(), start, end - start, StandardCharsets.US_ASCII));
+            start = i + 1;
+        }
+        in.position(start);
+        in.compact();
+        if (!in.hasRemaining()) {
+            send(c, "ERR line too long");
+            disconnect(c);
+        }
+    }
+
+    private void handle(Connection c, String line) {
+        String[] words = line.trim().split(" +");
+        switch (words[0]) {
+            case "NEW" -> newGame(c, words);
+            case "MOVE" -> {
+                if (words.length != 2) send(c, "ERR usage: MOVE <cell>");
+                else humanMove(c, words[1]);
+            }
+            case "QUIT" -> leave(c);
+            case "" -> { }
+            default -> send(c, "ERR unknown command " + words[0]);
+        }
+    }
+
+    private void newGame(Connection c, String[] words) {
+        if (c.game != null || waiting.containsValue(c)) {
+            send(c, "ERR already in a game");
+            return;
+        }
+        GameSettings settings;
+        String side;
+        try {
+            if (words.length < 4 || words.length > 5) throw new IllegalArgumentException(
+                    "usage: NEW <rows>x<cols> <k> <Human|Easy|Medium|Hard|MCTS> [X|O]");
+            String[] board = words[1].toLowerCase().split("x");
+            side = words.length == 5 ? words[4] : "X";
+            if (!side.equals("X") && !side.equals("O")) throw new IllegalArgumentException("side must be X or O");
+            String opponent = words[3];
+            if (!GameRecord.PLAYERS.contains(opponent)) throw new IllegalArgumentException("unknown opponent " + opponent);
+            // For AI games the settings are the AI's: its difficulty, and the side the human plays
+            settings = new GameSettings(Integer.parseInt(board[0]), Integer.parseInt(board[board.length - 1]),
+                    Integer.parseInt(words[2]), opponent.equals("Human") ? "Easy" : opponent, side);
+            if (opponent.equals("Human")) {
+                String key = settings.rows() + " " + settings.cols() + " " + settings.winLength();
+                Connection other = waiting.remove(key);
+                if (other == null) {
+                    waiting.put(key, c);
+                    send(c, "WAIT");
+                } else {
+                    start(new Game(nextGameId++, settings, null, other, c));
+                }
+                return;
+            }
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            send(c, "ERR " + e.getMessage());
+            return;
+        }
+        start(new Game(nextGameId++, settings, settings.difficulty(), side.equals("X") ? c : null,
+                side.equals("O") ? c : null));
+    }
+
+    private void start(Game game) {
+        gamesStarted++;
+        if (game.x != null) {
+            game.x.game = game;
+            send(game.x, "START " + game.id + " X");
+        }
+        if (game.o != null) {
+            game.o.game = game;
+            send(game.o, "START " + game.id + " O");
+        }
+        if (game.isAiTurn()) searchAiMove(game);
+    }
+
+    private void humanMove(Connection c, String cellText) {
+        Game game = c.game;
+        if (game == null) {
+            send(c, "ERR not in a game");
+            return;
+        }
+        int side = c == game.x ? GameState.X : GameState.O;
+        int cell;
+        try {
+            cell = Integer.parseInt(cellText);
+        } catch (NumberFormatException e) {
+            send(c, "ERR bad cell " + cellText);
+            return;
+        }
+        if (game.state.currentPlayer() != side || game.searching) {
+            send(c, "ERR not your turn");
+        } else if (cell < 0 || cell >= game.state.cellCount() || !game.state.isEmpty(cell)) {
+            send(c, "ERR illegal move " + cell);
+        } else {
+            play(game, cell);
+        }
+    }
+
+    // Plays cell for the side to move, tells both players and moves the game on
+    private void play(Game game, int cell) {
+        String mover = GameState.symbol(game.state.currentPlayer());
+        long now = System.nanoTime();
+        game.moveMillis[game.state.turns()] = (int) ((now - game.lastMoveNanos) / 1_000_000);
+        game.lastMoveNanos = now;
+        game.state.play(cell);
+        movesPlayed++;
+        String moved = "MOVED " + mover + " " + cell;
+        if (game.x != null) send(game.x, moved);
+        if (game.o != null) send(game.o, moved);
+
+        if (game.state.isOver()) {
+            int winner = game.state.getWinner();
+            finish(game, winner == GameState.EMPTY ? "TIE" : GameState.symbol(winner));
+        } else if (game.isAiTurn()) {
+            searchAiMove(game);
+        }
+    }
+
+    // Searches on the pool; the move comes back through aiMoves. The selector thread leaves the
+    // state alone meanwhile: the human can't move, and a finished game is only ever read
+    private void searchAiMove(Game game) {
+        game.searching = true;
+        aiPool.execute(() -> {
+            int move = player(game.settings).chooseMove(game.state);
+            aiMoves.add(() -> {
+                game.searching = false;
+                if (!game.finished) play(game, move);
+            });
+            selector.wakeup();
+        });
+    }
+
+    private AiPlayer player(GameSettings settings) {
+        String ai = settings.playAs().equals("X") ? "O" : "X";
+        AiPlayer player = players.get().computeIfAbsent(settings.toString(),
+                key -> new AiPlayer(settings, ai, moveBudgetMillis, mctsBudgetMillis, mctsThreads));
+        player.newGame(); // games interleave on a pool thread, so no MCTS tree carries over
+        return player;
+    }
+
+    private void finish(Game game, String result) {
+        game.finished = true;
+        gamesFinished++;
+        for (Connection c : new Connection[] { game.x, game.o }) {
+            if (c == null) continue;
+            c.game = null;
+            send(c, "END " + result);
+        }
+        if (log != null) {
+            try {
+                log.append(GameRecord.of(game.state, game.x == null ? game.aiName : "Human",
+                        game.o == null ? game.aiName : "Human", game.startSeconds, game.moveMillis));
+            } catch (IOException e) {
+                System.err.println("Could not record game: " + e); // the other games carry on
+            }
+        }
+    }
+
+    // Leaves the game or the queue for an opponent; a human opponent is told the game was abandoned
+    private void leave(Connection c) {
+        waiting.values().remove(c);
+        Game game = c.game;
+        if (game == null) return;
+        c.game = null;
+        if (c == game.x) game.x = null;
+        else game.o = null;
+        finish(game, "ABANDONED");
+    }
+
+    private void disconnect(Connection c) {
+        if (!c.channel.isOpen()) return;
+        leave(c);
+        c.key.cancel();
+        try {
+            c.channel.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+        connections--;
+        if (acceptPaused) resumeAccepting(); // a file descriptor is free again
+    }
+
+    // Queues line for c and writes as much as the socket takes now
+    private void send(Connection c, String line) {
+        if (!c.key.isValid()) return;
+        int length = line.length() + 1;
+        if (c.out.remaining() < length) {
+            if (c.out.position() + length > MAX_PENDING_OUTPUT) {
+                disconnect(c); // not reading its replies
+                return;
+            }
+            c.out = ByteBuffer.allocate(Math.max(c.out.capacity() * 2, c.out.position() + length)).put(c.out.flip());
+        }
+        for (int i = 0; i < line.length(); i++) c.out.put((byte) line.charAt(i));
+        c.out.put((byte) '\n');
+        try {
+            flush(c);
+        } catch (IOException e) {
+            disconnect(c);
+        }
+    }
+
+    private void flush(Connection c) throws IOException {
+        c.out.flip();
+        c.channel.write(c.out);
+        c.out.compact();
+        // Wait for the socket to drain only while something is left over
+        c.key.interestOps(c.out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        ByteBuffer out = ByteBuffer.allocate(256);
+        Game game; // null between games
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static final class Game {
+        final int id;
+        final GameSettings settings;
+        final String aiName; // difficulty of the AI side, null for human-vs-human
+        Connection x; // null for the AI, or once a human has left
+        Connection o;
+        final GameState state;
+        final int[] moveMillis;
+        final long startSeconds = System.currentTimeMillis() / 1000;
+        long lastMoveNanos = System.nanoTime();
+        boolean searching; // an AI move is being searched on the pool
+        boolean finished;
+
+        Game(int id, GameSettings settings, String aiName, Connection x, Connection o) {
+            this.id = id;
+            this.settings = settings;
+            this.aiName = aiName;
+            this.x = x;
+            this.o = o;
+            this.state = new GameState(settings.rows(), settings.cols(), settings.winLength(), GameState.X);
+            this.moveMillis = new int[state.cellCount()];
+        }
+
+        boolean isAiTurn() {
+            return aiName != null && !state.isOver() && !GameState.symbol(state.currentPlayer()).equals(settings.playAs());
+        }
+    }
+}
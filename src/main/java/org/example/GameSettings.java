@@ -1,4 +1,34 @@
 package main.java.org.example;
 
-public record GameSettings(int boardSize, String difficulty, String playAs) {
+// Board of rows x cols where winLength marks in a row win (an m,n,k game)
+public record GameSettings(int rows, int cols, int winLength, String difficulty, String playAs) {
+    public GameSettings {
+        if (rows < 1 || cols < 1 || rows * cols > MnkBoard.MAX_CELLS)
+            throw new IllegalArgumentException("Unsupported board " + rows + "x" + cols);
+        if (winLength < 1 || winLength > Math.max(rows, cols))
+            throw new IllegalArgumentException("Win length " + winLength + " does not fit a " + rows + "x" + cols + " board");
+    }
+
+    // Classic square board with its usual win length
+    public GameSettings(int boardSize, String difficulty, String playAs) {
+        this(boardSize, boardSize, defaultWinLength(boardSize, boardSize), difficulty, playAs);
+    }
+
+    // 3 in a row on 3x3 and 4x4, 4 on 5x5, 5 (Gomoku) on anything larger
+    public static int defaultWinLength(int rows, int cols) {
+        int size = Math.min(rows, cols);
+        return size <= 4 ? 3 : size == 5 ? 4 : 5;
+    }
+
+    public static int defaultWinLength(int boardSize) {
+        return defaultWinLength(boardSize, boardSize);
+    }
+
+    public boolean isSquare() {
+        return rows == cols;
+    }
+
+    public int cellCount() {
+        return rows * cols;
+    }
 }
@@ -0,0 +1,238 @@
+package main.java.org.example;
+
+/**
+ * Headless game model: the single source of truth for a game in progress.
+ * Plain primitive board (no Swing), whose turn it is, the move counter and the result.
+ * Wins come from the board's line counters in O(1); only the winning run, for highlighting,
+ * is found by walking the four lines through the last move.
+ * The stones live on an MnkBoard and every play, undo and redo goes through its make/unmake,
+ * the code path the m,n,k search runs; AiPlayer's search snapshots are copies of that board.
+ * Moves are kept on a history stack, so undo and redo are as cheap as a move.
+ */
+public final class GameState {
+    public static final int EMPTY = -1;
+    public static final int X = BitBoard.X;
+    public static final int O = BitBoard.O;
+
+    // Directions checked through the last move: horizontal, vertical, diagonal, anti-diagonal
+    private static final int[][] DIRECTIONS = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    final MnkBoard board; // stones, line counters and Zobrist hash
+    private final int[] winningCells; // cells of the winning run, first winningCount are valid
+    private final int[] moves; // cells in the order they were played; past turns are the undone ones
+
+    private int firstPlayer;
+    private int turns;
+    private int winner = EMPTY;
+    private int winningCount;
+    private boolean tie;
+    private int lastMove = -1;
+    private int historyLength; // moves on the stack, played and undone
+
+    public GameState(int size, int winLength, int firstPlayer) {
+        this(size, size, winLength, firstPlayer);
+    }
+
+    public GameState(int rows, int cols, int winLength, int firstPlayer) {
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.board = new MnkBoard(rows, cols, winLength);
+        this.winningCells = new int[Math.max(rows, cols)];
+        this.moves = new int[rows * cols];
+        reset(firstPlayer);
+    }
+
+    // Clears the board for a new game started by firstPlayer
+    public void reset(int firstPlayer) {
+        board.clear(firstPlayer);
+        this.firstPlayer = firstPlayer;
+        turns = 0;
+        winner = EMPTY;
+        winningCount = 0;
+        tie = false;
+        lastMove = -1;
+        historyLength = 0;
+    }
+
+    public void reset() {
+        reset(firstPlayer);
+    }
+
+    /**
+     * Places the current player's mark; returns false (and changes nothing) if the game is over
+     * or the cell is taken. Detects a win or tie, and otherwise passes the turn. Moves that
+     * were undone can no longer be redone.
+     */
+    public boolean play(int cell) {
+        if (isOver() || !board.isEmpty(cell)) return false;
+        make(cell);
+        historyLength = turns;
+        return true;
+    }
+
+    // Takes back the last move, win or tie included; returns false if no move was played
+    public boolean undo() {
+        if (turns == 0) return false;
+        board.unmake(moves[--turns]);
+        winner = EMPTY;
+        winningCount = 0;
+        tie = false;
+        lastMove = turns == 0 ? -1 : moves[turns - 1];
+        return true;
+    }
+
+    // Plays the last undone move again; returns false if there is none
+    public boolean redo() {
+        if (turns == historyLength) return false;
+        make(moves[turns]);
+        return true;
+    }
+
+    public boolean canUndo() {
+        return turns > 0;
+    }
+
+    public boolean canRedo() {
+        return turns < historyLength;
+    }
+
+    private void make(int cell) {
+        int player = board.sideToMove;
+        board.make(cell);
+        moves[turns++] = cell;
+        lastMove = cell;
+
+        if (board.hasWon(player)) {
+            recordWinningRun(cell);
+            winner = player;
+        } else if (board.isFull()) {
+            tie = true;
+        }
+    }
+
+    public boolean play(int row, int col) {
+        return play(row * cols + col);
+    }
+
+    // Finds the winning run through cell by walking the four lines through it: O(winLength)
+    private void recordWinningRun(int cell) {
+        int player = board.get(cell);
+        int row = cell / cols;
+        int col = cell % cols;
+        for (int[] d : DIRECTIONS) {
+            // Walk back to the start of the run, then forward to its end
+            int r = row;
+            int c = col;
+            int back = 0;
+            while (back < winLength - 1 && isPlayerAt(r - d[0], c - d[1], player)) {
+                r -= d[0];
+                c -= d[1];
+                back++;
+            }
+            int length = 1;
+            while (length < winLength && isPlayerAt(r + length * d[0], c + length * d[1], player)) {
+                length++;
+            }
+            if (length >= winLength) {
+                for (int i = 0; i < length; i++) {
+                    winningCells[i] = (r + i * d[0]) * cols + c + i * d[1];
+                }
+                winningCount = length;
+                return;
+            }
+        }
+    }
+
+    private boolean isPlayerAt(int row, int col, int player) {
+        return row >= 0 && row < rows && col >= 0 && col < cols && board.get(row * cols + col) == player;
+    }
+
+    public int get(int cell) {
+        return board.get(cell);
+    }
+
+    public int get(int row, int col) {
+        return board.get(row * cols + col);
+    }
+
+    public boolean isEmpty(int cell) {
+        return board.isEmpty(cell);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int cellCount() {
+        return board.cellCount();
+    }
+
+    public int winLength() {
+        return winLength;
+    }
+
+    // Player to move; once the game is over, the player who made the last move
+    public int currentPlayer() {
+        return isOver() ? board.sideToMove ^ 1 : board.sideToMove;
+    }
+
+    public int firstPlayer() {
+        return firstPlayer;
+    }
+
+    public int turns() {
+        return turns;
+    }
+
+    // Cell played on the given turn (0 = the first move)
+    public int moveAt(int turn) {
+        return moves[turn];
+    }
+
+    public int lastMove() {
+        return lastMove;
+    }
+
+    public boolean isOver() {
+        return winner != EMPTY || tie;
+    }
+
+    // Winning player, or EMPTY
+    public int getWinner() {
+        return winner;
+    }
+
+    public boolean isTie() {
+        return tie;
+    }
+
+    // Number of highlighted cells after a win (0 otherwise)
+    public int winningCount() {
+        return winningCount;
+    }
+
+    public int winningCell(int i) {
+        return winningCells[i];
+    }
+
+    // True if player could win with their next move (O(1))
+    public boolean hasThreat(int player) {
+        return board.hasThreat(player);
+    }
+
+    public static String symbol(int player) {
+        return player == X ? "X" : player == O ? "O" : "";
+    }
+
+    public static int player(String symbol) {
+        return BitBoard.sideOf(symbol);
+    }
+}
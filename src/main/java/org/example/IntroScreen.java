@@ -2,12 +2,19 @@ package main.java.org.example;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionListener;
+import java.util.function.Supplier;
 
 public class IntroScreen {
     // CardLayout for switching between screens
     private final CardLayout cardLayout;
     // Main container panel holding all screens
     private final JPanel mainPanel;
+    // The game screen is built this long after the intro, unless Start is pressed first
+    private static final int GAME_SCREEN_DELAY_MILLIS = 500;
+    // Other screens, built when first needed so the intro shows sooner
+    private TicTacToeUI gameScreen;
+    private ReplayScreen replays;
 
     // Constructor to initialize layout and main panel reference
     public IntroScreen(CardLayout cardLayout, JPanel mainPanel) {
@@ -43,9 +50,9 @@ public class IntroScreen {
         tileLabel.setForeground(Color.white);
         tileLabel.setFont(new Font("Arial", Font.BOLD, 18));
 
-        // Dropdown to select board size (3x3, 4x4, 5x5)
-        Integer[] tileCountChoices = { 3, 4, 5 };
-        JComboBox<Integer> tileCountDropdown = new JComboBox<>(tileCountChoices);
+        // Dropdown to select the board (rows x columns); the larger ones are m,n,k variants such as Gomoku
+        String[] tileCountChoices = { "3x3", "4x4", "5x5", "6x7", "7x7", "9x9", "15x15" };
+        JComboBox<String> tileCountDropdown = new JComboBox<>(tileCountChoices);
         tileCountDropdown.setPreferredSize(new Dimension(150, 25));
         tileCountDropdown.setMaximumSize(new Dimension(150, 25));
 
@@ -55,6 +62,36 @@ public class IntroScreen {
         tilePanel.add(tileCountDropdown);
         tilePanel.setMaximumSize(tilePanel.getPreferredSize());
 
+        // Panel for win length selection (how many marks in a row win)
+        JPanel winLengthPanel = new JPanel();
+        winLengthPanel.setBackground(Color.darkGray);
+        winLengthPanel.setLayout(new BoxLayout(winLengthPanel, BoxLayout.X_AXIS));
+
+        JLabel winLengthLabel = new JLabel("Win Length: ");
+        winLengthLabel.setForeground(Color.white);
+        winLengthLabel.setFont(new Font("Arial", Font.BOLD, 18));
+
+        JComboBox<Integer> winLengthDropdown = new JComboBox<>();
+        winLengthDropdown.setPreferredSize(new Dimension(150, 25));
+        winLengthDropdown.setMaximumSize(new Dimension(150, 25));
+
+        // Offer 3 up to the shorter side of the board (at most 6), preselecting the usual length
+        Runnable updateWinLengths = () -> {
+            int[] dims = parseBoard((String) tileCountDropdown.getSelectedItem());
+            int max = Math.min(Math.min(dims[0], dims[1]), 6);
+            Integer[] lengths = new Integer[max - 2];
+            for (int k = 3; k <= max; k++) lengths[k - 3] = k;
+            winLengthDropdown.setModel(new DefaultComboBoxModel<>(lengths));
+            winLengthDropdown.setSelectedItem(GameSettings.defaultWinLength(dims[0], dims[1]));
+        };
+        updateWinLengths.run();
+        tileCountDropdown.addActionListener(e -> updateWinLengths.run());
+
+        winLengthPanel.add(winLengthLabel);
+        winLengthPanel.add(Box.createHorizontalStrut(3)); // spacing
+        winLengthPanel.add(winLengthDropdown);
+        winLengthPanel.setMaximumSize(winLengthPanel.getPreferredSize());
+
         // Panel for difficulty selection
         JPanel difficultyPanel = new JPanel();
         difficultyPanel.setBackground(Color.darkGray);
@@ -65,22 +102,11 @@ public class IntroScreen {
         difficultyLabel.setFont(new Font("Arial", Font.BOLD, 18));
 
         // Dropdown for difficulty options
-        String[] difficultyChoices = { "Easy", "Medium", "Hard" };
+        String[] difficultyChoices = { "Easy", "Medium", "Hard", "MCTS" };
         JComboBox<String> difficultyDropdown = new JComboBox<>(difficultyChoices);
         difficultyDropdown.setPreferredSize(new Dimension(150, 25));
         difficultyDropdown.setMaximumSize(new Dimension(150, 25));
 
-        // Logic: if Hard is selected → lock board size to 3
-        difficultyDropdown.addActionListener(e -> {
-            String selectedDifficulty = (String) difficultyDropdown.getSelectedItem();
-            if ("Hard".equals(selectedDifficulty)) {
-                tileCountDropdown.setSelectedItem(3); // auto-set board size
-                tileCountDropdown.setEnabled(false); // disable user change
-            } else {
-                tileCountDropdown.setEnabled(true); // re-enable for Easy/Medium
-            }
-        });
-
         difficultyPanel.add(difficultyLabel);
         difficultyPanel.add(Box.createHorizontalStrut(23)); // spacing
         difficultyPanel.add(difficultyDropdown);
@@ -111,24 +137,59 @@ public class IntroScreen {
         button.setAlignmentX(Component.CENTER_ALIGNMENT);
         button.setMaximumSize(new Dimension(150, 25));
 
-        // On click → gather settings and switch to game screen
-        button.addActionListener(e -> {
-            int boardSize = (Integer) tileCountDropdown.getSelectedItem();
+        // Settings currently chosen (null while the win lengths are being refilled)
+        Supplier<GameSettings> selectedSettings = () -> {
+            int[] dims = parseBoard((String) tileCountDropdown.getSelectedItem());
+            Integer winLength = (Integer) winLengthDropdown.getSelectedItem();
             String difficulty = (String) difficultyDropdown.getSelectedItem();
             String playAs = (String) playerDropdown.getSelectedItem();
+            return winLength == null ? null : new GameSettings(dims[0], dims[1], winLength, difficulty, playAs);
+        };
+
+        // Get the engine for the chosen settings ready in the background while the player is still choosing.
+        // A new board size refills the win lengths, which fires their listener too
+        ActionListener warmUp = e -> {
+            GameSettings settings = selectedSettings.get();
+            if (settings != null) AiService.warmUp(settings);
+        };
+        winLengthDropdown.addActionListener(warmUp);
+        difficultyDropdown.addActionListener(warmUp);
+        playerDropdown.addActionListener(warmUp);
+        // The preselected settings are warmed up once the intro has been laid out, and the game
+        // screen is built a little later, while the player is still choosing
+        SwingUtilities.invokeLater(() -> warmUp.actionPerformed(null));
+        Timer buildGameScreen = new Timer(GAME_SCREEN_DELAY_MILLIS, e -> gameScreen());
+        buildGameScreen.setRepeats(false);
+        buildGameScreen.start();
 
-            GameSettings settings = new GameSettings(boardSize, difficulty, playAs);
+        // On click → gather settings and switch to game screen
+        button.addActionListener(e -> {
+            GameSettings settings = selectedSettings.get();
 
             // Pass settings into game UI and show it
-            mainPanel.add(new TicTacToeUI(cardLayout, mainPanel).gameUi(settings), "Game");
+            gameScreen().start(settings);
             cardLayout.show(mainPanel, "Game");
         });
 
+        // Replays button → step through recorded games
+        JButton replayButton = new JButton("Replays");
+        replayButton.setFont(new Font("Arial", Font.BOLD, 15));
+        replayButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        replayButton.setMaximumSize(new Dimension(150, 25));
+        replayButton.addActionListener(e -> {
+            if (replays == null) {
+                replays = new ReplayScreen(cardLayout, mainPanel);
+                mainPanel.add(replays.replayUi(), "Replays");
+            }
+            replays.reload();
+            cardLayout.show(mainPanel, "Replays");
+        });
+
         // Instruction label for win conditions
         JLabel abLabel = new JLabel(
                 "<html><div style='width:380px; margin:20px; text-align:center;'>"
                         + "Note: In the 3x3 and 4x4 boards, a player wins by aligning 3 tiles, "
-                        + "whereas in the 5x5 board, 4 aligned tiles are required to win."
+                        + "in the 5x5 board 4 and on the larger boards 5, unless another Win Length is chosen."
                         + "</div></html>",
                 SwingConstants.CENTER);
         abLabel.setBackground(Color.darkGray);
@@ -140,8 +201,8 @@ public class IntroScreen {
         // Instruction label for Hard mode restrictions
         JLabel nbLabel = new JLabel(
                 "<html><div style='width:380px; margin:20px; text-align:center;'>"
-                        + "Note: Due to computational constraints, Hard mode is available "
-                        + "only for the 3×3 board format."
+                        + "Note: On 4×4 and 5×5 Hard plays instantly once it has proven the result; "
+                        + "otherwise, and on the larger boards, it thinks for a few seconds per move."
                         + "</div></html>",
                 SwingConstants.CENTER);
         nbLabel.setBackground(Color.darkGray);
@@ -153,15 +214,19 @@ public class IntroScreen {
         // Add components to main intro panel (with spacing)
         panel.add(Box.createVerticalStrut(30)); // top padding
         panel.add(label);
-        panel.add(Box.createVerticalStrut(50));
+        panel.add(Box.createVerticalStrut(35));
         panel.add(tilePanel);
-        panel.add(Box.createVerticalStrut(40));
+        panel.add(Box.createVerticalStrut(25));
+        panel.add(winLengthPanel);
+        panel.add(Box.createVerticalStrut(25));
         panel.add(difficultyPanel);
-        panel.add(Box.createVerticalStrut(40));
+        panel.add(Box.createVerticalStrut(25));
         panel.add(playerPanel);
-        panel.add(Box.createVerticalStrut(40));
-        panel.add(button);
         panel.add(Box.createVerticalStrut(30));
+        panel.add(button);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(replayButton);
+        panel.add(Box.createVerticalStrut(20));
         panel.add(abLabel);
         panel.add(Box.createVerticalStrut(0));
         panel.add(nbLabel);
@@ -169,4 +234,19 @@ public class IntroScreen {
 
         return panel;
     }
+
+    // One game screen for the whole session, set up afresh for every game
+    private TicTacToeUI gameScreen() {
+        if (gameScreen == null) {
+            gameScreen = new TicTacToeUI(cardLayout, mainPanel);
+            mainPanel.add(gameScreen.gameUi(), "Game");
+        }
+        return gameScreen;
+    }
+
+    // "6x7" → {6, 7} (rows, columns)
+    private static int[] parseBoard(String choice) {
+        String[] parts = choice.split("x");
+        return new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) };
+    }
 }
@@ -0,0 +1,225 @@
+package main.java.org.example;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incremental win and threat detection. Every window of winLength aligned cells keeps a
+ * count of each player's marks, updated only for the windows through the cell that changed
+ * (at most 4 * winLength of them). From those counts each player keeps a histogram of open
+ * windows (no opposing mark) by number of own marks: a full one is a win and one a mark
+ * short is a threat, so "has X won?" and "can X win next move?" are O(1), and so is the
+ * threat-counting heuristic of ThreatEvaluator.
+ *
+ * Works for any rows x cols board, independent of the bitboard size limit.
+ */
+public final class LineCounters {
+    // Window geometry, shared by all counters of the same board shape
+    static final class Layout {
+        final int rows;
+        final int cols;
+        final int winLength;
+        final int windowCount;
+        final int[] windowCells; // window w covers windowCells[w * winLength ...]
+        final int[] cellWindowStart; // windows through cell c: cellWindows[cellWindowStart[c] .. cellWindowStart[c + 1])
+        final int[] cellWindows;
+        final int[] windowCellSums; // sum of the cell indices of each window
+
+        private Layout(int rows, int cols, int winLength) {
+            this.rows = rows;
+            this.cols = cols;
+            this.winLength = winLength;
+
+            int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+            int[] cells = new int[4 * rows * cols * winLength];
+            int[] perCell = new int[rows * cols];
+            int count = 0;
+            for (int[] d : directions) {
+                for (int row = 0; row < rows; row++) {
+                    for (int col = 0; col < cols; col++) {
+                        int endRow = row + (winLength - 1) * d[0];
+                        int endCol = col + (winLength - 1) * d[1];
+                        if (endRow < 0 || endRow >= rows || endCol < 0 || endCol >= cols)
+                            continue;
+                        for (int k = 0; k < winLength; k++) {
+                            int cell = (row + k * d[0]) * cols + col + k * d[1];
+                            cells[count * winLength + k] = cell;
+                            perCell[cell]++;
+                        }
+                        count++;
+                    }
+                }
+            }
+            windowCount = count;
+            windowCells = java.util.Arrays.copyOf(cells, count * winLength);
+
+            cellWindowStart = new int[rows * cols + 1];
+            for (int cell = 0; cell < rows * cols; cell++) {
+                cellWindowStart[cell + 1] = cellWindowStart[cell] + perCell[cell];
+            }
+            cellWindows = new int[cellWindowStart[rows * cols]];
+            int[] fill = java.util.Arrays.copyOf(cellWindowStart, rows * cols);
+            for (int w = 0; w < count; w++) {
+                for (int k = 0; k < winLength; k++) {
+                    int cell = windowCells[w * winLength + k];
+                    cellWindows[fill[cell]++] = w;
+                }
+            }
+            windowCellSums = new int[count];
+            for (int i = 0; i < count * winLength; i++) windowCellSums[i / winLength] += windowCells[i];
+        }
+    }
+
+    private static final Map<Long, Layout> LAYOUTS = new HashMap<>();
+
+    final Layout layout;
+    /*
+     * Both players' counts per window in one int (X in bits 0-7, O in bits 8-15), so an update
+     * touches one slot. Bits 16-31 hold the sum of the marked cells' indices (at most
+     * 15 * 255), which gives the empty cell of a window one mark short without a board.
+     */
+    private final int[] counts;
+    // open[player * (winLength + 1) + n]: windows with n of player's marks and none of the opponent's (n >= 1)
+    private final int[] open;
+
+    public LineCounters(int rows, int cols, int winLength) {
+        this.layout = layoutOf(rows, cols, winLength);
+        this.counts = new int[layout.windowCount];
+        this.open = new int[2 * (winLength + 1)];
+    }
+
+    private static Layout layoutOf(int rows, int cols, int winLength) {
+        synchronized (LAYOUTS) {
+            return LAYOUTS.computeIfAbsent(((long) rows << 40) | ((long) cols << 20) | winLength,
+                    k -> new Layout(rows, cols, winLength));
+        }
+    }
+
+    // Independent copy with the same counts
+    public LineCounters copy() {
+        LineCounters c = new LineCounters(layout.rows, layout.cols, layout.winLength);
+        c.copyFrom(this);
+        return c;
+    }
+
+    public void copyFrom(LineCounters other) {
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+        System.arraycopy(other.open, 0, open, 0, open.length);
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(counts, 0);
+        java.util.Arrays.fill(open, 0);
+    }
+
+    // Records a mark of player on cell
+    public void add(int player, int cell) {
+        int other = player ^ 1;
+        int ownShift = player << 3;
+        int oppShift = other << 3;
+        int ownBase = player * (layout.winLength + 1);
+        int oppBase = other * (layout.winLength + 1);
+        int[] windows = layout.cellWindows;
+        for (int i = layout.cellWindowStart[cell], end = layout.cellWindowStart[cell + 1]; i < end; i++) {
+            int w = windows[i];
+            int packed = counts[w];
+            int mine = (packed >>> ownShift) & 0xFF;
+            int theirs = (packed >>> oppShift) & 0xFF;
+            if (theirs == 0) {
+                open[ownBase + mine]--; // slot 0 is never read
+                open[ownBase + mine + 1]++;
+            } else if (mine == 0) {
+                open[oppBase + theirs]--; // blocked
+            }
+            counts[w] = packed + (1 << ownShift) + (cell << 16);
+        }
+    }
+
+    // Reverts add(player, cell)
+    public void remove(int player, int cell) {
+        int other = player ^ 1;
+        int ownShift = player << 3;
+        int oppShift = other << 3;
+        int ownBase = player * (layout.winLength + 1);
+        int oppBase = other * (layout.winLength + 1);
+        int[] windows = layout.cellWindows;
+        for (int i = layout.cellWindowStart[cell], end = layout.cellWindowStart[cell + 1]; i < end; i++) {
+            int w = windows[i];
+            int packed = counts[w] - (1 << ownShift) - (cell << 16);
+            int mine = (packed >>> ownShift) & 0xFF;
+            int theirs = (packed >>> oppShift) & 0xFF;
+            if (theirs == 0) {
+                open[ownBase + mine + 1]--;
+                open[ownBase + mine]++;
+            } else if (mine == 0) {
+                open[oppBase + theirs]++; // unblocked
+            }
+            counts[w] = packed;
+        }
+    }
+
+    public boolean hasWon(int player) {
+        return open[player * (layout.winLength + 1) + layout.winLength] > 0;
+    }
+
+    // Windows where player needs one more mark (the missing cell is empty): O(1)
+    public int threatCount(int player) {
+        return open[player * (layout.winLength + 1) + layout.winLength - 1];
+    }
+
+    /*
+     * Whether player threatens to complete a line on two different cells, so the opponent
+     * can't block them all. Several threat windows may share one missing cell, which a single
+     * block stops. O(1) unless player has two threat windows, then a scan of the windows.
+     */
+    public boolean hasDoubleThreat(int player) {
+        if (threatCount(player) < 2) return false;
+        int k = layout.winLength;
+        int first = -1;
+        for (int w = 0; w < layout.windowCount; w++) {
+            if (count(player, w) != k - 1 || count(player ^ 1, w) != 0) continue;
+            int missing = layout.windowCellSums[w] - (counts[w] >>> 16);
+            if (first < 0) first = missing;
+            else if (missing != first) return true;
+        }
+        return false;
+    }
+
+    // Windows holding exactly marks of player's marks and none of the opponent's (marks >= 1)
+    public int openCount(int player, int marks) {
+        return open[player * (layout.winLength + 1) + marks];
+    }
+
+    /*
+     * Move-ordering score of cell for player: over the windows through it, weights[n] for each
+     * window holding n of player's marks and none of the opponent's (a line to extend) plus
+     * weights[n] for each holding n opposing marks and none of player's (a line to block).
+     */
+    public int moveScore(int player, int cell, int[] weights) {
+        int ownShift = player << 3;
+        int oppShift = (player ^ 1) << 3;
+        int score = 0;
+        int[] windows = layout.cellWindows;
+        for (int i = layout.cellWindowStart[cell], end = layout.cellWindowStart[cell + 1]; i < end; i++) {
+            int packed = counts[windows[i]];
+            int mine = (packed >>> ownShift) & 0xFF;
+            int theirs = (packed >>> oppShift) & 0xFF;
+            if (theirs == 0) score += weights[mine];
+            else if (mine == 0) score += weights[theirs];
+        }
+        return score;
+    }
+
+    // Marks of player in window w
+    public int count(int player, int window) {
+        return (counts[window] >>> (player << 3)) & 0xFF;
+    }
+
+    public int windowCount() {
+        return layout.windowCount;
+    }
+
+    public int winLength() {
+        return layout.winLength;
+    }
+}
@@ -0,0 +1,205 @@
+package main.java.org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Load generator for GameServer: opens many connections from one selector thread, and each
+ * plays its games with random moves as fast as the server answers. Measures games per second,
+ * how long the server takes to confirm a move and how long the reply to a move takes (the AI's
+ * search, or the other client against a human opponent).
+ */
+public class LoadTestClient {
+    private final InetSocketAddress server;
+    private final int connections;
+    private final int gamesPerConnection;
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final String opponent;
+    private final long seed;
+
+    // Results, filled in by run()
+    public final SelfPlayTournament.Side confirmations = new SelfPlayTournament.Side();
+    public final SelfPlayTournament.Side replies = new SelfPlayTournament.Side();
+    public int games;
+    public int xWins;
+    public int oWins;
+    public int ties;
+    public int errors;
+    public long wallNanos;
+
+    /**
+     * connections clients that each play gamesPerConnection games on a rows x cols board against
+     * opponent ("Human" pairs the clients up with each other, or a difficulty).
+     */
+    public LoadTestClient(InetSocketAddress server, int connections, int gamesPerConnection, int rows, int cols,
+                          int winLength, String opponent, long seed) {
+        new GameSettings(rows, cols, winLength, "Easy", "X"); // validates the board
+        if (!GameRecord.PLAYERS.contains(opponent)) throw new IllegalArgumentException("Unknown opponent " + opponent);
+        this.server = server;
+        this.connections = connections;
+        this.gamesPerConnection = gamesPerConnection;
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.opponent = opponent;
+        this.seed = seed;
+    }
+
+    public double gamesPerSecond() {
+        return wallNanos == 0 ? 0 : games * 1e9 / wallNanos;
+    }
+
+    // Plays every game, or gives up after timeoutMillis; returns whether all of them finished
+    public boolean run(long timeoutMillis) throws IOException {
+        long start = System.nanoTime();
+        long deadline = start + timeoutMillis * 1_000_000;
+        int open = 0;
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < connections; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                // Against the AI, half of the clients play O
+                String side = opponent.equals("Human") || i % 2 == 0 ? "X" : "O";
+                Client c = new Client(channel, "NEW " + rows + "x" + cols + " " + winLength + " " + opponent + " " + side,
+                        new SplittableRandom(seed + i));
+                c.key = channel.register(selector, SelectionKey.OP_CONNECT, c);
+                channel.connect(server);
+                open++;
+            }
+            while (open > 0 && System.nanoTime() < deadline) {
+                selector.select(100);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Client c = (Client) key.attachment();
+                    if (key.isConnectable()) {
+                        c.channel.finishConnect();
+                        key.interestOps(SelectionKey.OP_READ);
+                        c.send(c.newGame);
+                    }
+                    if (key.isValid() && key.isReadable() && !c.read()) {
+                        key.cancel();
+                        c.channel.close();
+                        open--;
+                    }
+                    if (key.isValid() && key.isWritable()) c.flush();
+                }
+                selector.selectedKeys().clear();
+            }
+            for (SelectionKey key : selector.keys()) key.channel().close();
+        }
+        wallNanos = System.nanoTime() - start;
+        return open == 0;
+    }
+
+    private final class Client {
+        final SocketChannel channel;
+        final String newGame; // the line every game starts with
+        final SplittableRandom random;
+        SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(512);
+        final ByteBuffer out = ByteBuffer.allocate(512);
+        GameState board; // this client's copy of its current game
+        int side;
+        int gamesLeft = gamesPerConnection;
+        long sentNanos; // when the last move went out, 0 before this side's first move
+
+        Client(SocketChannel channel, String newGame, SplittableRandom random) {
+            this.channel = channel;
+            this.newGame = newGame;
+            this.random = random;
+        }
+
+        // Handles every complete line received; false once this client is done
+        boolean read() throws IOException {
+            if (channel.read(in) < 0) return false;
+            in.flip();
+            int start = 0;
+            for (int i = 0; i < in.limit(); i++) {
+                if (in.get(i) != '\n') continue;
+                boolean more = handle(new String(in.array(), start, i - start, StandardCharsets.US_ASCII));
+                start = i + 1;
+                if (!more) return false;
+            }
+            in.position(start);
+            in.compact();
+            return true;
+        }
+
+        private boolean handle(String line) {
+            String[] words = line.split(" ");
+            long now = System.nanoTime();
+            switch (words[0]) {
+                case "START" -> {
+                    side = GameState.player(words[2]);
+                    if (board == null) board = new GameState(rows, cols, winLength, GameState.X);
+                    else board.reset(GameState.X);
+                    sentNanos = 0;
+                    if (side == GameState.X) move();
+                }
+                case "MOVED" -> {
+                    int mover = GameState.player(words[1]);
+                    board.play(Integer.parseInt(words[2]));
+                    if (mover == side) {
+                        confirmations.record(now - sentNanos, 0);
+                    } else {
+                        if (sentNanos != 0) replies.record(now - sentNanos, 0);
+                        if (!board.isOver()) move();
+                    }
+                }
+                case "END" -> {
+                    games++;
+                    switch (words[1]) {
+                        case "X" -> xWins++;
+                        case "O" -> oWins++;
+                        case "TIE" -> ties++;
+                        default -> errors++; // abandoned
+                    }
+                    if (--gamesLeft == 0) return false;
+                    send(newGame);
+                }
+                case "ERR" -> {
+                    if (errors++ < 10) System.err.println("Server: " + line);
+                }
+                default -> { } // WAIT
+            }
+            return true;
+        }
+
+        private void move() {
+            int skip = random.nextInt(board.cellCount() - board.turns());
+            int cell = 0;
+            for (; ; cell++) {
+                if (board.isEmpty(cell) && skip-- == 0) break;
+            }
+            sentNanos = System.nanoTime();
+            send("MOVE " + cell);
+        }
+
+        void send(String line) {
+            for (int i = 0; i < line.length(); i++) out.put((byte) line.charAt(i));
+            out.put((byte) '\n');
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+            key.interestOps(out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+}
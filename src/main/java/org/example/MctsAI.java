@@ -0,0 +1,457 @@
+package main.java.org.example;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Monte Carlo tree search (UCT) for any m,n,k board. Every iteration walks down the tree by
+ * the UCB1 rule, expands one node, finishes the game with a quick playout (random moves near
+ * the stones, except that a win is always taken and a threat always blocked) and adds the
+ * result to every node on the path.
+ *
+ * The tree lives in a preallocated node pool of primitive arrays, so searching allocates
+ * nothing. Threads share one tree (tree parallelism): a node's visit count is raised on the way
+ * down, before its result is known, so other threads are steered elsewhere (virtual loss).
+ * After the opponent replies, the subtree of the position reached is kept for the next search.
+ */
+public class MctsAI {
+    // Nodes in each of the two pools (the second one is the target when a subtree is kept)
+    static final int POOL_SIZE = 1 << 18;
+    // Boards up to this size expand every empty cell; larger ones only the cells near stones
+    private static final int SMALL_BOARD_CELLS = 25;
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int NO_NODE = -1;
+    private static final int NO_MOVE = -1;
+
+    // Node states: children not created yet, being created by some thread, or ready
+    private static final int UNEXPANDED = 0;
+    private static final int EXPANDING = 1;
+    private static final int EXPANDED = 2;
+
+    // Searches of all engines run on these workers besides the calling thread
+    private static final ForkJoinPool WORKERS = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int cellCount;
+    private final int threads;
+
+    /*
+     * Node pool. Node 0 is the root; the children of a node are contiguous.
+     * stats packs visits (high 32 bits) with the reward in half points (low 32 bits) for the
+     * player who made the move into the node: 2 per win, 1 per draw, 0 per loss.
+     */
+    private Pool pool = new Pool();
+    private Pool spare = new Pool();
+    private final int[] oldIndex = new int[POOL_SIZE]; // scratch for keeping a subtree
+    private final MnkBoard root; // position of node 0
+    private boolean hasTree; // false until the first search and after reset()
+
+    private final Worker[] workers;
+    private final ForkJoinTask<?>[] tasks; // helper searches in flight, index 0 unused
+    private volatile boolean stopRequested; // set from another thread to end the search early
+    private volatile long deadline;
+    private volatile long iterationLimit;
+    private final AtomicLong iterations = new AtomicLong();
+    private long playouts;
+    private int maxDepth;
+    private double branchingFactor;
+    private long lastSearchNanos;
+
+    private static final class Pool {
+        final int[] move = new int[POOL_SIZE];
+        final int[] firstChild = new int[POOL_SIZE];
+        final int[] childCount = new int[POOL_SIZE];
+        final AtomicIntegerArray state = new AtomicIntegerArray(POOL_SIZE);
+        final AtomicLongArray stats = new AtomicLongArray(POOL_SIZE);
+        final AtomicInteger used = new AtomicInteger();
+
+        // Resets the first nodes (children included), so no move of an old tree can be read back
+        void clear(int nodes) {
+            for (int i = 0, end = Math.min(nodes, POOL_SIZE); i < end; i++) {
+                state.set(i, UNEXPANDED);
+                stats.set(i, 0L);
+                childCount[i] = 0;
+            }
+        }
+    }
+
+    // Per-thread scratch space
+    private final class Worker {
+        final MnkBoard board = new MnkBoard(rows, cols, winLength);
+        final int[] path = new int[cellCount + 1];
+        final int[] cells = new int[cellCount];
+        final int[] threats = new int[cellCount];
+        long playouts;
+        int maxDepth; // longest path from the root, in moves
+        long expansions;
+        long children; // created by those expansions
+        final Runnable search = () -> run(this);
+    }
+
+    public MctsAI(int rows, int cols, int winLength, int threads) {
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.cellCount = rows * cols;
+        this.threads = Math.max(1, threads);
+        workers = new Worker[this.threads];
+        for (int i = 0; i < this.threads; i++) workers[i] = new Worker();
+        tasks = new ForkJoinTask<?>[this.threads];
+        root = new MnkBoard(rows, cols, winLength);
+    }
+
+    // Uses every available core
+    public MctsAI(int rows, int cols, int winLength) {
+        this(rows, cols, winLength, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Makes the running search (on another thread), and any later one, return as soon as possible until clearStop()
+    public void stop() {
+        stopRequested = true;
+    }
+
+    // Lets searches run again after stop(); the caller decides when, so a stop() can't be lost to a search starting
+    public void clearStop() {
+        stopRequested = false;
+    }
+
+    // Playouts of the last search, over all threads
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    // Deepest tree node reached by the last search
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // Children per node expanded by the last search
+    public double getBranchingFactor() {
+        return branchingFactor;
+    }
+
+    public double getPlayoutsPerSecond() {
+        return lastSearchNanos == 0 ? 0 : playouts * 1e9 / lastSearchNanos;
+    }
+
+    // Visits of the root after the last search, including those carried over from earlier moves
+    public long getRootVisits() {
+        return pool.stats.get(0) >>> 32;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    // Forgets the tree, so the next search starts from scratch
+    public void reset() {
+        hasTree = false;
+    }
+
+    /**
+     * Most visited move for the side to move in position, after searching until the time
+     * budget or the iteration limit runs out (whichever comes first). The position is not modified.
+     */
+    public int bestCell(MnkBoard position, long timeBudgetMillis, long maxIterations) {
+        long start = System.nanoTime();
+        deadline = timeBudgetMillis == Long.MAX_VALUE ? Long.MAX_VALUE : start + timeBudgetMillis * 1_000_000L;
+        iterationLimit = maxIterations;
+        iterations.set(0);
+        playouts = 0;
+        maxDepth = 0;
+        branchingFactor = 0;
+        lastSearchNanos = 0;
+        for (Worker worker : workers) {
+            worker.playouts = 0;
+            worker.maxDepth = 0;
+            worker.expansions = 0;
+            worker.children = 0;
+        }
+
+        if (position.isFull()) return NO_MOVE;
+        // A win in one needs no search, and neither does the only move that blocks one
+        int[] forced = workers[0].threats;
+        if (position.hasThreat(position.sideToMove)) {
+            position.threatCells(position.sideToMove, forced);
+            return forced[0];
+        }
+        if (position.hasThreat(position.sideToMove ^ 1) && position.threatCells(position.sideToMove ^ 1, forced) == 1) {
+            return forced[0];
+        }
+
+        reuseOrReset(position);
+
+        // Submitting allocates one small task per helper thread; the iterations allocate nothing
+        for (int i = 1; i < threads; i++) tasks[i] = WORKERS.submit(workers[i].search);
+        run(workers[0]);
+        for (int i = 1; i < threads; i++) tasks[i].join();
+
+        playouts = 0;
+        long expansions = 0;
+        long children = 0;
+        for (Worker worker : workers) {
+            playouts += worker.playouts;
+            maxDepth = Math.max(maxDepth, worker.maxDepth);
+            expansions += worker.expansions;
+            children += worker.children;
+        }
+        branchingFactor = expansions == 0 ? 0 : (double) children / expansions;
+        lastSearchNanos = System.nanoTime() - start;
+        return mostVisitedChild();
+    }
+
+    private void run(Worker worker) {
+        while (!stopRequested && iterations.getAndIncrement() < iterationLimit) {
+            if ((worker.playouts & 63) == 0 && System.nanoTime() > deadline) break;
+            iterate(worker);
+        }
+    }
+
+    // One selection, expansion, playout and backpropagation
+    private void iterate(Worker worker) {
+        Pool p = pool;
+        MnkBoard board = worker.board;
+        board.copyFrom(root);
+        int[] path = worker.path;
+        int depth = 0;
+        int node = 0;
+        p.stats.getAndAdd(0, 1L << 32);
+        path[depth++] = 0;
+
+        int winner = GameState.EMPTY;
+        while (true) {
+            int mover = board.sideToMove ^ 1;
+            if (board.moveCount > 0 && board.hasWon(mover)) {
+                winner = mover;
+                break;
+            }
+            if (board.isFull()) break;
+
+            int state = p.state.get(node);
+            if (state == UNEXPANDED && p.state.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+                expand(p, node, worker);
+                state = EXPANDED;
+            }
+            if (state != EXPANDED || p.childCount[node] == 0) {
+                winner = playout(worker);
+                break;
+            }
+            node = select(p, node);
+            // Virtual loss: counted as visited (with no reward) until the result is added
+            long visits = p.stats.getAndAdd(node, 1L << 32) >>> 32;
+            path[depth++] = node;
+            board.make(p.move[node]);
+            if (visits == 0) {
+                // First visit of a new leaf: play it out rather than expanding further
+                mover = board.sideToMove ^ 1;
+                winner = board.hasWon(mover) ? mover : board.isFull() ? GameState.EMPTY : playout(worker);
+                break;
+            }
+        }
+        worker.playouts++;
+        if (depth - 1 > worker.maxDepth) worker.maxDepth = depth - 1;
+
+        // The player who moved into path[i] is the side to move at the root when i is odd
+        int rootSide = root.sideToMove;
+        for (int i = 0; i < depth; i++) {
+            int mover = (i & 1) == 1 ? rootSide : rootSide ^ 1;
+            long reward = winner == GameState.EMPTY ? 1 : winner == mover ? 2 : 0;
+            p.stats.getAndAdd(path[i], reward);
+        }
+    }
+
+    // Child with the highest UCB1 value; unvisited children come first
+    private static int select(Pool p, int node) {
+        double logParent = Math.log(Math.max(1, p.stats.get(node) >>> 32));
+        int first = p.firstChild[node];
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first, end = first + p.childCount[node]; child < end; child++) {
+            long stats = p.stats.get(child);
+            long visits = stats >>> 32;
+            if (visits == 0) return child;
+            double value = (stats & 0xFFFFFFFFL) / (2.0 * visits) + EXPLORATION * Math.sqrt(logParent / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Creates the children of node for the position on worker's board, then publishes them
+    private void expand(Pool p, int node, Worker worker) {
+        MnkBoard board = worker.board;
+        int side = board.sideToMove;
+        int[] moves = worker.cells;
+        int count;
+        if (board.hasThreat(side)) {
+            count = 1; // the win
+            board.threatCells(side, moves);
+        } else if (board.hasThreat(side ^ 1)) {
+            count = board.threatCells(side ^ 1, moves); // only blocks are worth trying
+        } else {
+            boolean everyCell = cellCount <= SMALL_BOARD_CELLS || board.moveCount == 0;
+            count = 0;
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (everyCell ? board.isEmpty(cell) : board.isCandidate(cell)) moves[count++] = cell;
+            }
+        }
+
+        int first = p.used.getAndAdd(count);
+        if (first + count > POOL_SIZE) {
+            // Pool exhausted: the node stays a leaf and is played out from
+            p.childCount[node] = 0;
+            p.state.set(node, EXPANDED);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int child = first + i;
+            p.move[child] = moves[i];
+            p.childCount[child] = 0;
+        }
+        p.firstChild[node] = first;
+        p.childCount[node] = count;
+        worker.expansions++;
+        worker.children += count;
+        p.state.set(node, EXPANDED); // volatile write: children are visible to every thread reading the state
+    }
+
+    // Finishes the game on worker's board and returns the winner (or EMPTY for a draw)
+    private int playout(Worker worker) {
+        MnkBoard board = worker.board;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] cells = worker.cells;
+        int free = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (board.isEmpty(cell)) cells[free++] = cell;
+        }
+
+        while (free > 0) {
+            int side = board.sideToMove;
+            int cell;
+            if (board.hasThreat(side)) {
+                return side; // completes the line next move
+            } else if (board.hasThreat(side ^ 1)) {
+                board.threatCells(side ^ 1, worker.threats);
+                cell = worker.threats[0];
+            } else {
+                // Prefer a cell near the stones; a few tries, then any free cell
+                int pick = random.nextInt(free);
+                for (int tries = 0; tries < 4 && !board.isCandidate(cells[pick]); tries++) pick = random.nextInt(free);
+                cell = cells[pick];
+            }
+            board.make(cell);
+            // Drop the cell from the free list
+            for (int i = 0; i < free; i++) {
+                if (cells[i] == cell) {
+                    cells[i] = cells[--free];
+                    break;
+                }
+            }
+            if (board.hasWon(side)) return side;
+        }
+        return GameState.EMPTY;
+    }
+
+    // Falls back to a legal cell (next to a stone if any) when no iteration expanded the root
+    private int mostVisitedChild() {
+        Pool p = pool;
+        if (p.state.get(0) != EXPANDED || p.childCount[0] == 0) {
+            int fallback = NO_MOVE;
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (root.isCandidate(cell)) return cell;
+                if (fallback == NO_MOVE && root.isEmpty(cell)) fallback = cell;
+            }
+            return fallback;
+        }
+        int best = NO_MOVE;
+        long bestVisits = -1;
+        for (int child = p.firstChild[0], end = child + p.childCount[0]; child < end; child++) {
+            long visits = p.stats.get(child) >>> 32;
+            if (visits > bestVisits) {
+                bestVisits = visits;
+                best = p.move[child];
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Keeps the tree when position follows from the previous root by up to two moves (ours and
+     * the opponent's reply): that subtree is copied to the front of the spare pool, breadth
+     * first, and the pools are swapped. Anything else starts a new tree.
+     */
+    private void reuseOrReset(MnkBoard position) {
+        int node = hasTree ? descendTo(position) : NO_NODE;
+        if (node == NO_NODE) {
+            pool.clear(Math.max(1, pool.used.get()));
+            pool.used.set(1);
+        } else if (node != 0) {
+            keepSubtree(node);
+        }
+        root.copyFrom(position);
+        hasTree = true;
+    }
+
+    // Node of the current tree holding position, or NO_NODE
+    private int descendTo(MnkBoard position) {
+        if (position.moveCount < root.moveCount || position.moveCount > root.moveCount + 2) return NO_NODE;
+        int node = 0;
+        int side = root.sideToMove;
+        for (int ply = root.moveCount; ply < position.moveCount; ply++) {
+            if (pool.state.get(node) != EXPANDED) return NO_NODE;
+            int next = NO_NODE;
+            for (int child = pool.firstChild[node], end = child + pool.childCount[node]; child < end; child++) {
+                int cell = pool.move[child];
+                if (position.get(cell) == side && root.isEmpty(cell)) {
+                    next = child;
+                    break;
+                }
+            }
+            if (next == NO_NODE) return NO_NODE;
+            node = next;
+            side ^= 1;
+        }
+        // Every stone of the old root must still be there
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (!root.isEmpty(cell) && position.get(cell) != root.get(cell)) return NO_NODE;
+        }
+        return position.sideToMove == side ? node : NO_NODE;
+    }
+
+    private void keepSubtree(int newRoot) {
+        Pool from = pool;
+        Pool to = spare;
+        to.clear(Math.max(1, to.used.get()));
+
+        oldIndex[0] = newRoot;
+        int next = 1;
+        for (int i = 0; i < next; i++) {
+            int old = oldIndex[i];
+            to.move[i] = from.move[old];
+            to.stats.set(i, from.stats.get(old));
+            if (from.state.get(old) != EXPANDED || from.childCount[old] == 0) {
+                to.childCount[i] = 0;
+                continue; // left unexpanded; it is expanded again on its next visit
+            }
+            int count = from.childCount[old];
+            to.firstChild[i] = next;
+            to.childCount[i] = count;
+            to.state.set(i, EXPANDED);
+            for (int c = 0; c < count; c++) oldIndex[next + c] = from.firstChild[old] + c;
+            next += count;
+        }
+        to.used.set(next);
+
+        pool = to;
+        spare = from;
+    }
+}
@@ -10,7 +10,7 @@ public class MinimaxAI {
         this.ai = ai;
         this.human = human;
         this.boardSize = boardSize;
-        this.winLength = (boardSize > 4) ? 4 : 3; // same rule you used
+        this.winLength = GameSettings.defaultWinLength(boardSize);
     }
 
     // Public method: Hard difficulty (full minimax)
@@ -77,8 +77,8 @@ public class MinimaxAI {
         return best;
     }
 
-    // Evaluates board state
-    private int evaluate(String[][] board) {
+    // Evaluates board state (package-private so the benchmarks can call it)
+    int evaluate(String[][] board) {
         // Horizontal & Vertical
         for (int i = 0; i < boardSize; i++) {
             for (int j = 0; j <= boardSize - winLength; j++) {
@@ -128,8 +128,8 @@ public class MinimaxAI {
         return true;
     }
 
-    // Checks if there are moves left
-    private boolean isMovesLeft(String[][] board) {
+    // Checks if there are moves left (package-private so the benchmarks can call it)
+    boolean isMovesLeft(String[][] board) {
         for (int i = 0; i < boardSize; i++) {
             for (int j = 0; j < boardSize; j++) {
                 if (board[i][j].isEmpty()) return true;
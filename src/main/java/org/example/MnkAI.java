@@ -0,0 +1,291 @@
+package main.java.org.example;
+
+/**
+ * Search engine for m,n,k games on boards too large for a full-width search (up to 15x15
+ * Gomoku). Iterative-deepening alpha-beta over MnkBoard that only considers empty cells near
+ * existing stones, tries the most promising MAX_BRANCH of them below the root, answers forced
+ * positions (a win in one, a threat to block) without branching, and scores the positions
+ * where it stops with the threat-counting heuristic. Plays for whichever side is to move.
+ */
+public class MnkAI {
+    static final int WIN_SCORE = BitboardAI.WIN_SCORE;
+    private static final int DECISIVE_SCORE = WIN_SCORE - 1_000;
+    private static final int INFINITY = 1_000_000;
+    private static final int NO_MOVE = -1;
+
+    // Deepest search attempted; positions this deep are scored heuristically anyway
+    static final int MAX_DEPTH = 32;
+    // Moves searched at each node below the root, best-ordered first
+    static final int MAX_BRANCH = 12;
+    // Separates this engine's table entries from BitboardAI's when both play the same board
+    private static final long TABLE_SALT = 0x6A09E667F3BCC909L;
+
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int cellCount;
+    private final TranspositionTable table;
+    private final Evaluator evaluator = ThreatEvaluator.INSTANCE;
+    private final int[] orderWeights; // orderWeights[n]: value of a window with n marks of one side only
+
+    // Per-ply move buffers, allocated once per engine
+    private final int[][] moveBuffer;
+    private final int[][] scoreBuffer;
+
+    private final MnkBoard board; // private copy of the position being searched
+    private long nodeCount;
+    private long cutoffCount; // nodes where a move failed high
+    private long tableHits; // table probes that found an entry for the position
+    private long interiorCount; // nodes whose moves were generated
+    private int maxPly; // deepest node visited
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean stopRequested; // set from another thread to end the search early
+    private int completedDepth;
+    private int rootScore;
+
+    public MnkAI(int rows, int cols, int winLength) {
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.cellCount = rows * cols;
+        this.table = TranspositionTable.shared(rows, cols, winLength);
+
+        orderWeights = new int[winLength + 1];
+        for (int n = 0; n <= winLength; n++) {
+            orderWeights[n] = 1 << Math.min(2 * n, 24);
+        }
+        board = new MnkBoard(rows, cols, winLength);
+        moveBuffer = new int[MAX_DEPTH + 1][cellCount];
+        scoreBuffer = new int[MAX_DEPTH + 1][cellCount];
+    }
+
+    // Makes the running search (on another thread), and any later one, return as soon as possible until clearStop()
+    public void stop() {
+        stopRequested = true;
+    }
+
+    // Lets searches run again after stop(); the caller decides when, so a stop() can't be lost to a search starting
+    public void clearStop() {
+        stopRequested = false;
+    }
+
+    // Nodes visited by the last search
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    // Beta cutoffs of the last search
+    public long getCutoffCount() {
+        return cutoffCount;
+    }
+
+    // Table probes of the last search that found an entry
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    // Deepest ply the last search reached
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    // Moves searched per node that searched any (lower is better ordering)
+    public double getBranchingFactor() {
+        return interiorCount == 0 ? 0 : (double) nodeCount / interiorCount;
+    }
+
+    // Deepest fully completed iteration of the last search
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Best cell for the side to move, searching up to maxDepth plies (the root move included)
+     * or until the time budget runs out, whichever comes first. The position is not modified.
+     */
+    public int bestCell(MnkBoard position, int maxDepth, long timeBudgetMillis) {
+        board.copyFrom(position);
+        deadline = timeBudgetMillis == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        aborted = false;
+        nodeCount = 0;
+        cutoffCount = 0;
+        tableHits = 0;
+        interiorCount = 0;
+        maxPly = 0;
+        completedDepth = 0;
+        table.newSearch();
+
+        if (board.isFull()) return NO_MOVE;
+        if (board.moveCount == 0) return (rows / 2) * cols + cols / 2; // open in the center
+
+        int empty = cellCount - board.moveCount;
+        int depthLimit = Math.min(Math.min(maxDepth, empty), MAX_DEPTH);
+        int best = NO_MOVE;
+        for (int depth = 1; depth <= depthLimit; depth++) {
+            int move = searchRoot(depth, best);
+            if (aborted) break;
+            best = move;
+            completedDepth = depth;
+            if (Math.abs(rootScore) > DECISIVE_SCORE) break; // proven win or loss: deeper won't change it
+        }
+        if (best == NO_MOVE) {
+            // Not even one ply finished: take the best-ordered candidate
+            int[] moves = moveBuffer[0];
+            int count = generateMoves(moves, scoreBuffer[0], NO_MOVE);
+            best = count > 0 ? pickBest(moves, scoreBuffer[0], 0, count) : NO_MOVE;
+        }
+        return best;
+    }
+
+    // Searches every candidate of the root to depth plies; firstMove (if any) goes first
+    private int searchRoot(int depth, int firstMove) {
+        int side = board.sideToMove;
+        int[] moves = moveBuffer[0];
+        int[] scores = scoreBuffer[0];
+        if (board.hasThreat(side)) {
+            board.threatCells(side, moves);
+            rootScore = WIN_SCORE - 1;
+            return moves[0];
+        }
+        int count;
+        if (board.hasThreat(side ^ 1)) {
+            count = board.threatCells(side ^ 1, moves); // must block
+            for (int i = 0; i < count; i++) scores[i] = moves[i] == firstMove ? 1 : 0;
+        } else {
+            count = generateMoves(moves, scores, firstMove);
+        }
+
+        interiorCount++;
+        int bestVal = -INFINITY;
+        int bestCell = NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int cell = pickBest(moves, scores, i, count);
+            board.make(cell);
+            int val = -search(1, depth - 1, -INFINITY, -bestVal);
+            board.unmake(cell);
+            if (aborted) return bestCell;
+            if (val > bestVal) {
+                bestVal = val;
+                bestCell = cell;
+            }
+        }
+        rootScore = bestVal;
+        return bestCell;
+    }
+
+    // Negamax alpha-beta; ply moves have been made since the root, depth plies remain
+    private int search(int ply, int depth, int alpha, int beta) {
+        nodeCount++;
+        if ((nodeCount & 1023) == 0 && (stopRequested || System.nanoTime() > deadline)) aborted = true;
+        if (aborted) return 0;
+        if (ply > maxPly) maxPly = ply;
+
+        int side = board.sideToMove;
+        if (board.hasWon(side ^ 1)) return -(WIN_SCORE - ply);
+        if (board.isFull()) return 0;
+        // Winning right now is the best any move can score
+        if (board.hasThreat(side)) return WIN_SCORE - (ply + 1);
+        if (depth <= 0 || ply >= MAX_DEPTH) return evaluator.evaluate(board.counters, side);
+
+        long key = board.hash ^ TABLE_SALT;
+        long entry = table.probe(key);
+        int tableMove = NO_MOVE;
+        if (entry != 0) {
+            tableHits++;
+            tableMove = TranspositionTable.move(entry);
+            if (TranspositionTable.draft(entry) >= depth) {
+                int val = fromTable(TranspositionTable.value(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && val >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && val <= alpha))
+                    return val;
+            }
+        }
+
+        int[] moves = moveBuffer[ply];
+        int[] scores = scoreBuffer[ply];
+        int count;
+        int searched;
+        if (board.hasThreat(side ^ 1)) {
+            // Only a block can delay the loss; with two threats to block the search will see it fail
+            count = board.threatCells(side ^ 1, moves);
+            for (int i = 0; i < count; i++) scores[i] = 0;
+            searched = count;
+        } else {
+            count = generateMoves(moves, scores, tableMove);
+            searched = Math.min(count, MAX_BRANCH);
+        }
+        interiorCount++;
+
+        int alphaOrig = alpha;
+        int best = -INFINITY;
+        int bestMove = NO_MOVE;
+        for (int i = 0; i < searched; i++) {
+            int cell = pickBest(moves, scores, i, count);
+            board.make(cell);
+            int val = -search(ply + 1, depth - 1, -beta, -alpha);
+            board.unmake(cell);
+            if (aborted) return 0;
+
+            if (val > best) {
+                best = val;
+                bestMove = cell;
+            }
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) {
+                cutoffCount++;
+                break;
+            }
+        }
+
+        int bound = best <= alphaOrig ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(key, toTable(best, ply), depth, bound, bestMove);
+        return best;
+    }
+
+    /*
+     * Fills moves with the cells near a stone and scores them for the side to move
+     * (tableMove first). Returns how many there are; pickBest brings them out in order,
+     * so only the part of the list that is actually searched gets sorted.
+     */
+    private int generateMoves(int[] moves, int[] scores, int tableMove) {
+        int side = board.sideToMove;
+        int count = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (!board.isCandidate(cell)) continue;
+            moves[count] = cell;
+            scores[count] = cell == tableMove ? Integer.MAX_VALUE : board.counters.moveScore(side, cell, orderWeights);
+            count++;
+        }
+        return count;
+    }
+
+    // Selection sort step: moves the highest-scored of moves[i..count) to position i and returns it
+    private static int pickBest(int[] moves, int[] scores, int i, int count) {
+        int pick = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[pick]) pick = j;
+        }
+        int cell = moves[pick];
+        moves[pick] = moves[i];
+        scores[pick] = scores[i];
+        moves[i] = cell;
+        return cell;
+    }
+
+    // Wins and losses are stored as distance from the node, not from the root
+    private static int toTable(int value, int ply) {
+        if (value > DECISIVE_SCORE) return value + ply;
+        if (value < -DECISIVE_SCORE) return value - ply;
+        return value;
+    }
+
+    private static int fromTable(int value, int ply) {
+        if (value > DECISIVE_SCORE) return value - ply;
+        if (value < -DECISIVE_SCORE) return value + ply;
+        return value;
+    }
+}
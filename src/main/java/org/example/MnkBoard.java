@@ -0,0 +1,184 @@
+package main.java.org.example;
+
+import java.util.Arrays;
+
+/**
+ * Board for the m,n,k engine: any rows x cols board of up to MAX_CELLS cells, beyond what fits
+ * in a bitboard. Keeps the line counters, a Zobrist hash and, for every cell, how many stones
+ * lie within NEAR_RADIUS of it, so the search can restrict itself to cells next to the action.
+ * make/unmake are O(winLength + NEAR_RADIUS^2).
+ */
+public final class MnkBoard {
+    // Moves are stored in 8 bits in the transposition table
+    public static final int MAX_CELLS = 255;
+    // Cells farther than this (in king moves) from every stone are not worth searching
+    static final int NEAR_RADIUS = 2;
+
+    final int rows;
+    final int cols;
+    final int winLength;
+    final LineCounters counters;
+    final Zobrist zobrist;
+
+    final byte[] cells;
+    final int[] near; // stones within NEAR_RADIUS of each cell
+    int sideToMove;
+    int moveCount;
+    long hash;
+
+    public MnkBoard(int rows, int cols, int winLength) {
+        if (rows * cols > MAX_CELLS)
+            throw new IllegalArgumentException("Board larger than " + MAX_CELLS + " cells");
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.counters = new LineCounters(rows, cols, winLength);
+        this.zobrist = Zobrist.of(rows * cols);
+        this.cells = new byte[rows * cols];
+        this.near = new int[rows * cols];
+        Arrays.fill(cells, (byte) GameState.EMPTY);
+    }
+
+    // Snapshot of a game in progress
+    public static MnkBoard of(GameState state) {
+        MnkBoard b = new MnkBoard(state.rows(), state.cols(), state.winLength());
+        b.load(state);
+        return b;
+    }
+
+    // Overwrites this board with the game's position (a copy of the board the game plays on); the dimensions must match
+    public void load(GameState state) {
+        copyFrom(state.board);
+    }
+
+    // Empties the board, with firstSide to move
+    void clear(int firstSide) {
+        Arrays.fill(cells, (byte) GameState.EMPTY);
+        Arrays.fill(near, 0);
+        counters.clear();
+        moveCount = 0;
+        sideToMove = firstSide;
+        hash = firstSide == BitBoard.O ? zobrist.sideKey : 0;
+    }
+
+    public MnkBoard copy() {
+        MnkBoard b = new MnkBoard(rows, cols, winLength);
+        b.copyFrom(this);
+        return b;
+    }
+
+    // Overwrites this board with other (same dimensions) without allocating
+    public void copyFrom(MnkBoard other) {
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.near, 0, near, 0, near.length);
+        counters.copyFrom(other.counters);
+        sideToMove = other.sideToMove;
+        moveCount = other.moveCount;
+        hash = other.hash;
+    }
+
+    // Plays cell for the side to move
+    public void make(int cell) {
+        place(sideToMove, cell);
+        sideToMove ^= 1;
+        hash ^= zobrist.sideKey;
+    }
+
+    public void unmake(int cell) {
+        sideToMove ^= 1;
+        hash ^= zobrist.sideKey;
+        int side = cells[cell];
+        cells[cell] = (byte) GameState.EMPTY;
+        counters.remove(side, cell);
+        hash ^= zobrist.keys[side][cell];
+        moveCount--;
+        addNear(cell, -1);
+    }
+
+    private void place(int side, int cell) {
+        cells[cell] = (byte) side;
+        counters.add(side, cell);
+        hash ^= zobrist.keys[side][cell];
+        moveCount++;
+        addNear(cell, 1);
+    }
+
+    private void addNear(int cell, int delta) {
+        int row = cell / cols;
+        int col = cell % cols;
+        int top = Math.max(0, row - NEAR_RADIUS);
+        int bottom = Math.min(rows - 1, row + NEAR_RADIUS);
+        int left = Math.max(0, col - NEAR_RADIUS);
+        int right = Math.min(cols - 1, col + NEAR_RADIUS);
+        for (int r = top; r <= bottom; r++) {
+            for (int c = left; c <= right; c++) near[r * cols + c] += delta;
+        }
+    }
+
+    // Mark on cell (GameState.X, GameState.O or GameState.EMPTY)
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    public boolean isEmpty(int cell) {
+        return cells[cell] == GameState.EMPTY;
+    }
+
+    // Empty and within NEAR_RADIUS of a stone
+    public boolean isCandidate(int cell) {
+        return cells[cell] == GameState.EMPTY && near[cell] > 0;
+    }
+
+    public boolean isFull() {
+        return moveCount == cells.length;
+    }
+
+    public boolean hasWon(int side) {
+        return counters.hasWon(side);
+    }
+
+    public boolean hasThreat(int side) {
+        return counters.threatCount(side) > 0;
+    }
+
+    /**
+     * Writes the distinct empty cells that would complete a line for side into out and returns
+     * how many there are. Scans every window, so only call it when hasThreat(side).
+     */
+    public int threatCells(int side, int[] out) {
+        LineCounters.Layout layout = counters.layout;
+        int k = winLength;
+        int count = 0;
+        for (int w = 0; w < layout.windowCount; w++) {
+            if (counters.count(side, w) != k - 1 || counters.count(side ^ 1, w) != 0) continue;
+            for (int i = w * k; i < (w + 1) * k; i++) {
+                int cell = layout.windowCells[i];
+                if (cells[cell] != GameState.EMPTY) continue;
+                boolean seen = false;
+                for (int j = 0; j < count; j++) seen |= out[j] == cell;
+                if (!seen && count < out.length) out[count++] = cell;
+            }
+        }
+        return count;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int cellCount() {
+        return cells.length;
+    }
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    public int moveCount() {
+        return moveCount;
+    }
+}
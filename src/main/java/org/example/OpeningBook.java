@@ -0,0 +1,193 @@
+package main.java.org.example;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped table of solved positions written by OpeningBookGenerator.
+ *
+ * File layout: magic (int), board size (byte), win length (byte), record count (int),
+ * then records sorted by code: code (int) + result (short). A code packs the stones of the
+ * side to move and of its opponent (canonical orientation); a result packs the distance to
+ * the end of the game (signed byte) and the best move in canonical orientation (byte).
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x54545442; // "TTTB"
+    static final int MAX_CELLS = 16;
+    private static final int HEADER_BYTES = 10;
+    private static final int RECORD_BYTES = 6;
+
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    // Directory searched for book files (book-3x3-k3.bin, ...)
+    private static final Path BOOK_DIR = Path.of(System.getProperty("tictactoe.books", "books"));
+    private static final OpeningBook[][] LOADED = new OpeningBook[MAX_CELLS + 1][MAX_CELLS + 1];
+    private static final boolean[][] ATTEMPTED = new boolean[MAX_CELLS + 1][MAX_CELLS + 1];
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int cells;
+    private final long fullMask;
+    private final WinLines winLines;
+    private final Symmetry symmetry;
+
+    private OpeningBook(MappedByteBuffer buffer, int size, int winLength) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(6);
+        this.cells = size * size;
+        this.fullMask = (1L << cells) - 1;
+        this.winLines = WinLines.of(size, winLength);
+        this.symmetry = Symmetry.of(size);
+    }
+
+    public static Path fileFor(int size, int winLength) {
+        return BOOK_DIR.resolve("book-" + size + "x" + size + "-k" + winLength + ".bin");
+    }
+
+    /**
+     * Returns the book for this board, mapping its file on first use,
+     * or null if no book has been generated for it.
+     */
+    public static OpeningBook forBoard(int size, int winLength) {
+        if (size * size > MAX_CELLS) return null;
+        synchronized (LOADED) {
+            if (!ATTEMPTED[size][winLength]) {
+                ATTEMPTED[size][winLength] = true;
+                LOADED[size][winLength] = open(fileFor(size, winLength), size, winLength);
+            }
+            return LOADED[size][winLength];
+        }
+    }
+
+    private static OpeningBook open(Path file, int size, int winLength) {
+        if (!Files.isReadable(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.get(4) != size || buffer.get(5) != winLength)
+                return null;
+            return new OpeningBook(buffer, size, winLength);
+        } catch (IOException e) {
+            return null; // no book: the engine simply searches
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the first best cell in row-major order for the side to move, chosen exactly like
+     * the full search would (quickest win, then draw, then slowest loss), or -1 if the position
+     * or one of its replies is not in the book.
+     */
+    public int bestCell(BitBoard board) {
+        long mover = board.stones[board.sideToMove];
+        long opponent = board.stones[board.sideToMove ^ 1];
+        int bestRank = Integer.MIN_VALUE;
+        int bestCell = -1;
+
+        long empty = fullMask & ~(mover | opponent);
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            long next = mover | (1L << cell);
+
+            int distance;
+            if (wins(next, cell)) {
+                distance = 1;
+            } else if ((next | opponent) == fullMask) {
+                distance = 0;
+            } else {
+                int reply = lookup(opponent, next);
+                if (reply == NOT_FOUND) return -1;
+                int d = distance(reply);
+                distance = d > 0 ? -(d + 1) : d < 0 ? -d + 1 : 0;
+            }
+            if (rank(distance) > bestRank) {
+                bestRank = rank(distance);
+                bestCell = cell;
+            }
+        }
+        return bestCell;
+    }
+
+    /**
+     * Best move stored for the position, mapped back to the board's own orientation,
+     * or -1 if the position is not in the book.
+     */
+    public int storedMove(BitBoard board) {
+        long mover = board.stones[board.sideToMove];
+        long opponent = board.stones[board.sideToMove ^ 1];
+        int canonical = canonicalSymmetry(mover, opponent);
+        int result = find(encode(symmetry.apply(canonical, mover), symmetry.apply(canonical, opponent), cells));
+        return result == NOT_FOUND ? -1 : symmetry.invert(canonical, move(result));
+    }
+
+    // Packed result of the position (side to move first), or NOT_FOUND
+    public int lookup(long mover, long opponent) {
+        int canonical = canonicalSymmetry(mover, opponent);
+        return find(encode(symmetry.apply(canonical, mover), symmetry.apply(canonical, opponent), cells));
+    }
+
+    private int canonicalSymmetry(long mover, long opponent) {
+        int best = 0;
+        long bestCode = Long.MAX_VALUE;
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            long code = encode(symmetry.apply(s, mover), symmetry.apply(s, opponent), cells);
+            if (code < bestCode) {
+                bestCode = code;
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    // Binary search over the sorted, memory-mapped records
+    private int find(long code) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = HEADER_BYTES + mid * RECORD_BYTES;
+            long midCode = Integer.toUnsignedLong(buffer.getInt(offset));
+            if (midCode < code) low = mid + 1;
+            else if (midCode > code) high = mid - 1;
+            else return buffer.getShort(offset + 4) & 0xFFFF;
+        }
+        return NOT_FOUND;
+    }
+
+    private boolean wins(long stones, int cell) {
+        for (long line : winLines.linesThrough[cell]) {
+            if ((stones & line) == line) return true;
+        }
+        return false;
+    }
+
+    static long encode(long mover, long opponent, int cells) {
+        return mover | opponent << cells;
+    }
+
+    static short pack(int distance, int move) {
+        return (short) ((distance & 0xFF) << 8 | (move & 0xFF));
+    }
+
+    static int distance(int result) {
+        return (byte) (result >> 8);
+    }
+
+    static int move(int result) {
+        return result & 0xFF;
+    }
+
+    // Orders distances like the search scores them: quicker wins first, slower losses last
+    static int rank(int distance) {
+        if (distance > 0) return 1000 - distance;
+        if (distance < 0) return -1000 - distance;
+        return 0;
+    }
+}
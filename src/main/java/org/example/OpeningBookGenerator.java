@@ -0,0 +1,157 @@
+package main.java.org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Offline solver that writes an OpeningBook file: every position reachable from the
+ * empty board (either side starting) is solved exactly and stored once per symmetry class.
+ * Run through the GenerateBook entry point.
+ */
+public final class OpeningBookGenerator {
+    private final int size;
+    private final int cells;
+    private final long fullMask;
+    private final WinLines winLines;
+    private final Symmetry symmetry;
+
+    // Open-addressing map: canonical code -> packed (distance, best move); EMPTY marks a free slot
+    private static final long EMPTY = -1L;
+    private long[] codes = new long[1 << 16];
+    private short[] results = new short[1 << 16];
+    private int count;
+
+    public OpeningBookGenerator(int size, int winLength) {
+        this.size = size;
+        this.cells = size * size;
+        this.fullMask = (1L << cells) - 1;
+        this.winLines = WinLines.of(size, winLength);
+        this.symmetry = Symmetry.of(size);
+        Arrays.fill(codes, EMPTY);
+    }
+
+    // Solves the whole game and writes the book to file; returns the number of positions stored
+    public int generate(Path file) throws IOException {
+        if (cells > OpeningBook.MAX_CELLS)
+            throw new IllegalArgumentException("Book positions must fit in 32 bits: " + size + "x" + size);
+        solve(0L, 0L);
+
+        long[] sorted = new long[count];
+        short[] sortedResults = new short[count];
+        int n = 0;
+        for (int slot = 0; slot < codes.length; slot++) {
+            if (codes[slot] != EMPTY) sorted[n++] = codes[slot] << 16 | (results[slot] & 0xFFFF);
+        }
+        Arrays.sort(sorted);
+        for (int i = 0; i < count; i++) {
+            sortedResults[i] = (short) sorted[i];
+            sorted[i] >>>= 16;
+        }
+
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile())))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeByte(size);
+            out.writeByte(winLines.winLength);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeInt((int) sorted[i]);
+                out.writeShort(sortedResults[i]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the distance to the end of the game with perfect play, from the mover's side:
+     * +d = the mover wins with the d-th ply from here, -d = the mover loses after d plies, 0 = draw.
+     */
+    private int solve(long mover, long opponent) {
+        // Work in the canonical orientation so the stored best move is in that orientation
+        int canonical = 0;
+        long code = Long.MAX_VALUE;
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            long c = OpeningBook.encode(symmetry.apply(s, mover), symmetry.apply(s, opponent), cells);
+            if (c < code) {
+                code = c;
+                canonical = s;
+            }
+        }
+        int known = find(code);
+        if (known >= 0) return OpeningBook.distance(results[known]);
+
+        mover = symmetry.apply(canonical, mover);
+        opponent = symmetry.apply(canonical, opponent);
+
+        int bestDistance = 0;
+        int bestMove = -1;
+        long empty = fullMask & ~(mover | opponent);
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            long next = mover | (1L << cell);
+
+            int distance;
+            if (wins(next, cell)) {
+                distance = 1;
+            } else if ((next | opponent) == fullMask) {
+                distance = 0;
+            } else {
+                int reply = solve(opponent, next);
+                distance = reply > 0 ? -(reply + 1) : reply < 0 ? -reply + 1 : 0;
+            }
+            if (bestMove < 0 || OpeningBook.rank(distance) > OpeningBook.rank(bestDistance)) {
+                bestDistance = distance;
+                bestMove = cell;
+            }
+        }
+        put(code, OpeningBook.pack(bestDistance, bestMove));
+        return bestDistance;
+    }
+
+    private boolean wins(long stones, int cell) {
+        for (long line : winLines.linesThrough[cell]) {
+            if ((stones & line) == line) return true;
+        }
+        return false;
+    }
+
+    private int find(long code) {
+        int slot = slotOf(code);
+        while (codes[slot] != EMPTY) {
+            if (codes[slot] == code) return slot;
+            slot = (slot + 1) & (codes.length - 1);
+        }
+        return -1;
+    }
+
+    private void put(long code, short result) {
+        if (count * 2 >= codes.length) grow();
+        int slot = slotOf(code);
+        while (codes[slot] != EMPTY) slot = (slot + 1) & (codes.length - 1);
+        codes[slot] = code;
+        results[slot] = result;
+        count++;
+    }
+
+    private int slotOf(long code) {
+        return (int) ((code * 0x9E3779B97F4A7C15L) >>> 40) & (codes.length - 1);
+    }
+
+    private void grow() {
+        long[] oldCodes = codes;
+        short[] oldResults = results;
+        codes = new long[oldCodes.length * 2];
+        results = new short[oldCodes.length * 2];
+        Arrays.fill(codes, EMPTY);
+        count = 0;
+        for (int i = 0; i < oldCodes.length; i++) {
+            if (oldCodes[i] != EMPTY) put(oldCodes[i], oldResults[i]);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package main.java.org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded front end for BitboardAI. Every worker engine shares the board's
+ * transposition table (which is lock-free), so work done by one thread helps the others.
+ *
+ * ROOT_SPLIT searches the root moves in parallel; LAZY_SMP runs the normal search on one
+ * thread while helpers search the same position with shuffled move ordering to fill the
+ * table. Both return the same move as the sequential engine.
+ */
+public class ParallelSearch {
+    public enum Mode { ROOT_SPLIT, LAZY_SMP }
+
+    private static final int INFINITY = 1_000_000;
+
+    private final int ai;
+    private final int boardSize;
+    private final int winLength;
+    private final int threads;
+    private final Mode mode;
+    private final ForkJoinPool pool;
+
+    private final BitboardAI main; // Lazy SMP main line, book lookups
+    private final BitboardAI[] helpers; // Lazy SMP only, index 0 unused
+    // Root split: each pool worker searches with its own engine, made on its first task
+    private final ThreadLocal<BitboardAI> workerEngine;
+    private final Queue<BitboardAI> workerEngines = new ConcurrentLinkedQueue<>(); // every one made so far
+    private volatile Evaluator evaluator = Evaluator.NONE;
+    private final LongAdder nodes = new LongAdder();
+
+    public ParallelSearch(String ai, String human, int boardSize, int threads, Mode mode) {
+        this.ai = BitBoard.sideOf(ai);
+        this.boardSize = boardSize;
+        this.winLength = GameSettings.defaultWinLength(boardSize);
+        this.threads = Math.max(1, threads);
+        this.mode = mode;
+        this.pool = new ForkJoinPool(this.threads);
+
+        main = new BitboardAI(ai, human, boardSize);
+        helpers = new BitboardAI[mode == Mode.LAZY_SMP ? this.threads : 0];
+        for (int i = 1; i < helpers.length; i++) {
+            helpers[i] = new BitboardAI(ai, human, boardSize);
+            helpers[i].setOrderingSeed(i + 1);
+        }
+        workerEngine = ThreadLocal.withInitial(() -> {
+            BitboardAI engine = new BitboardAI(ai, human, boardSize);
+            workerEngines.add(engine);
+            engine.setEvaluator(evaluator); // after joining the list, so a concurrent setEvaluator can't be missed
+            return engine;
+        });
+    }
+
+    // Uses every available core
+    public ParallelSearch(String ai, String human, int boardSize) {
+        this(ai, human, boardSize, Runtime.getRuntime().availableProcessors(), Mode.ROOT_SPLIT);
+    }
+
+    // Full search (Hard)
+    public int[] findBestMove(String[][] board) {
+        BitBoard position = BitBoard.fromStrings(board, winLength, ai == BitBoard.X ? "X" : "O");
+        main.prepare(position, Long.MAX_VALUE, false);
+        int cell = main.bookMove();
+        if (cell >= 0) {
+            nodes.reset();
+            return toRowCol(cell);
+        }
+        return toRowCol(search(position, Integer.MAX_VALUE));
+    }
+
+    // Depth-limited search (Medium)
+    public int[] findBestMoveWithDepthLimit(String[][] board, int depthLimit) {
+        BitBoard position = BitBoard.fromStrings(board, winLength, ai == BitBoard.X ? "X" : "O");
+        return toRowCol(search(position, depthLimit));
+    }
+
+    // Applies to every thread's engine, see BitboardAI.setEvaluator
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+        main.setEvaluator(evaluator);
+        for (int i = 1; i < helpers.length; i++) helpers[i].setEvaluator(evaluator);
+        for (BitboardAI engine : workerEngines) engine.setEvaluator(evaluator);
+    }
+
+    // Nodes visited by all threads during the last search
+    public long getNodeCount() {
+        return nodes.sum();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private int search(BitBoard position, int depthLimit) {
+        nodes.reset();
+        main.getTranspositionTable().newSearch();
+        return mode == Mode.ROOT_SPLIT ? rootSplit(position, depthLimit) : lazySmp(position, depthLimit);
+    }
+
+    /**
+     * Each root move is a task. Moves are searched with alpha one below the best value found
+     * so far, so moves that tie the best come back exact and the earliest cell still wins.
+     */
+    private int rootSplit(BitBoard position, int depthLimit) {
+        boolean sameDraftOnly = depthLimit != Integer.MAX_VALUE;
+        int invariants = position.symmetry.invariants(position.stones[BitBoard.X], position.stones[BitBoard.O]);
+        AtomicInteger bestSoFar = new AtomicInteger(-INFINITY);
+        int[] values = new int[boardSize * boardSize];
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        long empty = position.emptyCells();
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            values[cell] = -INFINITY;
+            if (position.symmetry.isDuplicateMove(invariants, cell)) continue;
+
+            tasks.add(pool.submit(() -> {
+                BitboardAI engine = workerEngine.get();
+                engine.prepare(position, Long.MAX_VALUE, sameDraftOnly);
+                int value = engine.searchRootMove(cell, depthLimit, bestSoFar.get() - 1);
+                values[cell] = value;
+                bestSoFar.accumulateAndGet(value, Math::max);
+                nodes.add(engine.getNodeCount());
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) task.join();
+
+        int bestCell = -1;
+        int bestVal = -INFINITY;
+        empty = position.emptyCells();
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            if (values[cell] > bestVal) {
+                bestVal = values[cell];
+                bestCell = cell;
+            }
+        }
+        return bestCell;
+    }
+
+    // The main engine's answer is used; helpers only warm the shared table and stop when it is done
+    private int lazySmp(BitBoard position, int depthLimit) {
+        boolean sameDraftOnly = depthLimit != Integer.MAX_VALUE;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            BitboardAI helper = helpers[i];
+            helper.clearStop();
+            helper.prepare(position, Long.MAX_VALUE, sameDraftOnly);
+            tasks.add(pool.submit(() -> {
+                helper.searchRoot(depthLimit, -1);
+                nodes.add(helper.getNodeCount());
+            }));
+        }
+
+        main.clearStop();
+        main.prepare(position, Long.MAX_VALUE, sameDraftOnly);
+        int best = main.searchRoot(depthLimit, -1);
+        nodes.add(main.getNodeCount());
+
+        for (int i = 1; i < threads; i++) helpers[i].stop();
+        for (ForkJoinTask<?> task : tasks) task.join();
+        return best;
+    }
+
+    private int[] toRowCol(int cell) {
+        return cell < 0 ? new int[] { -1, -1 } : new int[] { cell / boardSize, cell % boardSize };
+    }
+}
@@ -0,0 +1,168 @@
+package main.java.org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Batch analysis: solves positions exactly and reports the best move and the game-theoretic
+ * value of each. Positions stream in one per line and results stream out in the same order,
+ * with only a bounded window of positions in flight, so inputs of any size run in constant
+ * memory. The searches run in parallel and share the transposition table of their board.
+ *
+ * <p>A position is its rows separated by '/', with X, O and '.' for the cells, optionally
+ * followed by the side to move ("X.O/.X./..O X"). Without it, X moves when both sides have
+ * as many stones. Blank lines and lines starting with '#' are copied through unchanged.
+ *
+ * <p>Each result line is tab-separated: the position, the side to move, the best move as
+ * row,col (0-based), the result for the side to move ("win in 3", "draw", "loss in 4", or
+ * who already won) and the nodes searched. Lines that can't be read get "error: reason".
+ */
+public class PositionAnalyzer {
+    // Largest board solved; the bitboards hold up to 8x8, though only small boards solve quickly
+    private static final int MAX_SIZE = 8;
+
+    private final int winLength; // 0 for each board's usual win length
+    private final long timeBudgetMillis;
+    private final int parallelism;
+
+    // Two engines (X and O to move) per board and win length for each pool thread
+    private final ThreadLocal<Map<Integer, BitboardAI[]>> engines = ThreadLocal.withInitial(HashMap::new);
+
+    private long positions;
+    private long nanos;
+
+    /**
+     * Analyzer using parallelism threads. winLength 0 picks each board's usual win length;
+     * a position not solved within timeBudgetMillis is reported as unsolved.
+     */
+    public PositionAnalyzer(int winLength, long timeBudgetMillis, int parallelism) {
+        this.winLength = winLength;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.parallelism = parallelism;
+    }
+
+    // Positions analyzed by the last analyze(in, out)
+    public long getPositions() {
+        return positions;
+    }
+
+    public double positionsPerSecond() {
+        return nanos == 0 ? 0 : positions * 1e9 / nanos;
+    }
+
+    /**
+     * Analyzes every line of in and writes one result line per input line to out, in order.
+     * Returns the number of positions analyzed (comments and blank lines not counted).
+     */
+    public long analyze(BufferedReader in, Writer out) throws IOException {
+        long start = System.nanoTime();
+        positions = 0;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        // Enough work queued to keep every thread busy while the oldest result is awaited
+        int window = parallelism * 64;
+        ArrayDeque<ForkJoinTask<String>> pending = new ArrayDeque<>(window);
+        try {
+            for (String line; (line = in.readLine()) != null; ) {
+                String position = line;
+                if (!isComment(line)) positions++;
+                pending.add(pool.submit(() -> analyze(position)));
+                if (pending.size() >= window) write(out, pending.poll().join());
+            }
+            while (!pending.isEmpty()) write(out, pending.poll().join());
+            out.flush();
+        } finally {
+            pool.shutdownNow();
+            nanos = System.nanoTime() - start;
+        }
+        return positions;
+    }
+
+    private static void write(Writer out, String result) throws IOException {
+        out.write(result);
+        out.write('\n');
+    }
+
+    private static boolean isComment(String line) {
+        return line.isBlank() || line.startsWith("#");
+    }
+
+    // Result line for one input line
+    public String analyze(String line) {
+        if (isComment(line)) return line;
+        String[] parts = line.trim().split("\\s+");
+        BitBoard board;
+        try {
+            if (parts.length > 2) throw new IllegalArgumentException("expected a board and the side to move");
+            board = parse(parts[0], parts.length == 2 ? parts[1] : null);
+        } catch (IllegalArgumentException e) {
+            return line + "\terror: " + e.getMessage();
+        }
+        String side = board.sideToMove() == BitBoard.X ? "X" : "O";
+        String prefix = parts[0] + "\t" + side + "\t";
+        if (board.hasWon(BitBoard.X) || board.hasWon(BitBoard.O))
+            return prefix + "-\t" + (board.hasWon(BitBoard.X) ? "X" : "O") + " has won\t0";
+        if (board.isFull()) return prefix + "-\tdrawn\t0";
+
+        BitboardAI engine = engine(board.size(), board.sideToMove());
+        int cell = engine.solve(board, timeBudgetMillis);
+        if (cell < 0) return prefix + "-\tunsolved\t" + engine.getNodeCount();
+        return prefix + cell / board.size() + "," + cell % board.size() + "\t" + describe(engine.getLastValue())
+                + "\t" + engine.getNodeCount();
+    }
+
+    private BitboardAI engine(int size, int side) {
+        int k = winLength > 0 ? winLength : GameSettings.defaultWinLength(size);
+        BitboardAI[] pair = engines.get().computeIfAbsent(size << 8 | k, key -> new BitboardAI[] {
+                new BitboardAI("X", "O", size, k), new BitboardAI("O", "X", size, k) });
+        return pair[side];
+    }
+
+    private static String describe(int value) {
+        if (value == 0) return "draw";
+        int plies = BitboardAI.WIN_SCORE - Math.abs(value) + 1;
+        return String.format(Locale.ROOT, "%s in %d", value > 0 ? "win" : "loss", plies);
+    }
+
+    /**
+     * Reads "X.O/.X./..O" with the side to move ("X", "O", or null to infer it). Throws
+     * IllegalArgumentException for anything that isn't a square board reachable in a game.
+     */
+    public BitBoard parse(String rows, String toMove) {
+        String[] lines = rows.split("/");
+        int size = lines.length;
+        if (size < 1 || size > MAX_SIZE) throw new IllegalArgumentException("board must have 1 to " + MAX_SIZE + " rows");
+        String[][] cells = new String[size][size];
+        int xs = 0;
+        int os = 0;
+        for (int row = 0; row < size; row++) {
+            if (lines[row].length() != size) throw new IllegalArgumentException("board must be square");
+            for (int col = 0; col < size; col++) {
+                switch (Character.toUpperCase(lines[row].charAt(col))) {
+                    case 'X' -> { cells[row][col] = "X"; xs++; }
+                    case 'O' -> { cells[row][col] = "O"; os++; }
+                    case '.', '-' -> cells[row][col] = "";
+                    default -> throw new IllegalArgumentException("unexpected '" + lines[row].charAt(col) + "'");
+                }
+            }
+        }
+        int k = winLength > 0 ? winLength : GameSettings.defaultWinLength(size);
+        if (k > size) throw new IllegalArgumentException("win length " + k + " does not fit a " + size + "x" + size + " board");
+        if (Math.abs(xs - os) > 1) throw new IllegalArgumentException("stone counts differ by more than one");
+        String side = toMove != null ? toMove.toUpperCase(Locale.ROOT) : xs > os ? "O" : "X";
+        if (!side.equals("X") && !side.equals("O")) throw new IllegalArgumentException("side to move must be X or O");
+        if ((side.equals("X") && xs > os) || (side.equals("O") && os > xs))
+            throw new IllegalArgumentException(side + " has more stones and can't be to move");
+
+        BitBoard board = BitBoard.fromStrings(cells, k, side);
+        if (board.hasWon(BitBoard.X) && board.hasWon(BitBoard.O))
+            throw new IllegalArgumentException("both sides have won");
+        return board;
+    }
+}
@@ -0,0 +1,324 @@
+package main.java.org.example;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Depth-first proof-number search (df-pn) over bitboards: proves whether the side to move
+ * wins, draws or loses with perfect play, without the exhaustive search full-width minimax
+ * needs. Proof and disproof numbers steer the search to the moves that are cheapest to
+ * settle, and threats cut the tree down further: a side that can complete a line has won, a
+ * side facing two open threats has lost, a single threat leaves only the block, and a side
+ * with no open line left can no longer win.
+ *
+ * Proof search only answers yes/no questions, so a position is solved with up to two of them:
+ * "does the side to move win?" and, if not, "does the opponent win?" (no means a draw).
+ *
+ * Results live in a lock-free table shared by every solver of the same board, keyed by the
+ * symmetry-canonical hash, so a line proven once is played instantly from then on.
+ */
+public final class ProofNumberSolver {
+    // Result of solve, for the side to move
+    public static final int LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int UNKNOWN = 2; // ran out of time
+
+    // Proof numbers saturate here; a node at INF can't be proven at all
+    static final int INF = 1 << 30;
+    // Mixed into the keys of the "does O win?" search so its entries don't mix with the X one
+    private static final long O_ATTACKS_KEY = 0x6A09E667F3BCC909L;
+
+    private static final Map<Long, Table> SHARED = new HashMap<>();
+
+    private final BitBoard board; // private copy of the position being solved
+    private final Table table;
+    private final int cells;
+    // Per-ply children and their (phi, delta), allocated once
+    private final int[][] moveBuffer;
+    private final int[][] phiBuffer;
+    private final int[][] deltaBuffer;
+
+    private int attacker; // the side whose win the current proof search is about
+    private int rootMoveCount;
+    private long nodeCount;
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+    private int bestMove = -1;
+
+    public ProofNumberSolver(int boardSize, int winLength) {
+        this.board = new BitBoard(boardSize, winLength);
+        this.table = shared(boardSize, winLength);
+        this.cells = boardSize * boardSize;
+        this.moveBuffer = new int[cells + 1][cells];
+        this.phiBuffer = new int[cells + 1][cells];
+        this.deltaBuffer = new int[cells + 1][cells];
+    }
+
+    private static Table shared(int boardSize, int winLength) {
+        synchronized (SHARED) {
+            return SHARED.computeIfAbsent((long) boardSize << 20 | winLength,
+                    k -> new Table(boardSize * boardSize <= 16 ? 18 : 20));
+        }
+    }
+
+    // Makes the running solve (on another thread), and any later one, return UNKNOWN as soon as possible until clearStop()
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public void clearStop() {
+        stopRequested = false;
+    }
+
+    // Whether stop() was called since the last clearStop(), cutting the last solve short
+    public boolean wasStopped() {
+        return stopRequested;
+    }
+
+    // Nodes expanded by the last solve
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    // Entries in use in the shared table of this board
+    public int getTableEntries() {
+        return table.used();
+    }
+
+    /**
+     * Move that achieves the result of the last solve: a winning move after WIN, a drawing
+     * one after DRAW, and -1 after LOSS or UNKNOWN (any move loses, or nothing is known).
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Solves position (not modified) for the side to move: WIN, DRAW or LOSS, or UNKNOWN if
+     * the time budget ran out or stop() was called first. Long.MAX_VALUE means no budget.
+     */
+    public int solve(BitBoard position, long timeBudgetMillis) {
+        board.copyFrom(position);
+        rootMoveCount = board.moveCount;
+        deadline = timeBudgetMillis == Long.MAX_VALUE ? Long.MAX_VALUE
+                : System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        nodeCount = 0;
+        aborted = false;
+        bestMove = -1;
+        int mover = board.sideToMove;
+        if (board.hasWon(BitBoard.X) || board.hasWon(BitBoard.O) || board.isFull()) return UNKNOWN; // game over
+
+        long win = prove(mover);
+        if (aborted) return UNKNOWN;
+        if (phi(win) == 0) {
+            bestMove = provenMove();
+            return aborted ? UNKNOWN : WIN;
+        }
+        // No win: the mover draws unless the opponent can force a win
+        long loss = prove(mover ^ 1);
+        if (aborted) return UNKNOWN;
+        if (phi(loss) != 0) return LOSS;
+        bestMove = provenMove();
+        return aborted ? UNKNOWN : DRAW;
+    }
+
+    // (phi, delta) of the root in the search for an attacker win; phi 0 means the side to move's goal is met
+    private long prove(int attacker) {
+        this.attacker = attacker;
+        long known = terminal();
+        return known != 0 ? known : mid(INF, INF);
+    }
+
+    /*
+     * A root move whose child fails its own goal (delta 0), found in the table. The quickest
+     * win is taken first; a child whose entry was overwritten since is solved again, which the
+     * rest of the table makes cheap.
+     */
+    private int provenMove() {
+        int mover = board.sideToMove;
+        long wins = board.threatCells(mover);
+        if (wins != 0) return Long.numberOfTrailingZeros(wins);
+        int count = generate(moveBuffer[0]);
+        for (int i = 0; i < count; i++) {
+            int cell = moveBuffer[0][i];
+            board.make(cell);
+            long child = terminal();
+            if (child == 0) child = table.probe(key());
+            if (child == 0 || (phi(child) != 0 && delta(child) != 0)) child = mid(INF, INF);
+            board.unmake(cell);
+            if (aborted) return -1;
+            if (delta(child) == 0) return cell;
+        }
+        return -1;
+    }
+
+    /*
+     * Multiple iterative deepening at the current node, from the point of view of its side
+     * to move: phi is the proof number of its goal (the attacker winning when it is the
+     * attacker, the attacker not winning otherwise) and delta the disproof number. Expands
+     * until phi >= thPhi or delta >= thDelta and returns the node's packed (phi, delta).
+     */
+    private long mid(int thPhi, int thDelta) {
+        nodeCount++;
+        if ((nodeCount & 1023) == 0 && (stopRequested || System.nanoTime() > deadline)) aborted = true;
+
+        int ply = board.moveCount - rootMoveCount;
+        int[] moves = moveBuffer[ply];
+        int[] phis = phiBuffer[ply];
+        int[] deltas = deltaBuffer[ply];
+        int count = generate(moves);
+        for (int i = 0; i < count; i++) {
+            board.make(moves[i]);
+            long child = terminal();
+            if (child == 0) child = table.probe(key());
+            board.unmake(moves[i]);
+            // Unknown children start at 1/1
+            phis[i] = child == 0 ? 1 : phi(child);
+            deltas[i] = child == 0 ? 1 : delta(child);
+        }
+
+        long key = key();
+        while (true) {
+            // The node's goal is met by any child that fails its own: phi = min delta, delta = sum phi
+            int phi = INF;
+            int delta = 0;
+            int best = 0;
+            int secondDelta = INF;
+            for (int i = 0; i < count; i++) {
+                delta = (int) Math.min(INF, (long) delta + phis[i]);
+                if (deltas[i] < phi) {
+                    secondDelta = phi;
+                    phi = deltas[i];
+                    best = i;
+                } else if (deltas[i] < secondDelta) {
+                    secondDelta = deltas[i];
+                }
+            }
+            table.store(key, phi, delta);
+            if (phi >= thPhi || delta >= thDelta || aborted) return pack(phi, delta);
+
+            int childThPhi = (int) Math.min(INF, (long) thDelta - delta + phis[best]);
+            int childThDelta = (int) Math.min(thPhi, Math.min(INF, secondDelta + secondDelta / 4L + 1));
+            board.make(moves[best]);
+            long child = mid(childThPhi, childThDelta);
+            board.unmake(moves[best]);
+            phis[best] = phi(child);
+            deltas[best] = delta(child);
+        }
+    }
+
+    // Moves worth trying: only the block when the opponent threatens a single cell, else every empty cell
+    private int generate(int[] moves) {
+        int opp = board.sideToMove ^ 1;
+        long candidates = board.hasThreat(opp) ? board.threatCells(opp) : board.emptyCells();
+        int count = 0;
+        while (candidates != 0) {
+            moves[count++] = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+        }
+        return count;
+    }
+
+    /*
+     * (phi, delta) of a position settled without search, or 0: a completed line, a line the
+     * side to move completes next, a full board, two threats that can't both be blocked, or
+     * an attacker that has no line left to complete.
+     */
+    private long terminal() {
+        int side = board.sideToMove;
+        int opp = side ^ 1;
+        int winner;
+        if (board.hasWon(opp)) winner = opp;
+        else if (board.hasThreat(side)) winner = side;
+        else if (board.isFull()) winner = -1;
+        else if (board.hasThreat(opp) && Long.bitCount(board.threatCells(opp)) > 1) winner = opp;
+        else if (!hasOpenLine(attacker)) winner = -1;
+        else return 0;
+        // The side to move's goal is the attacker's win if it is the attacker, and its failure if not
+        boolean goalMet = (winner == attacker) == (side == attacker);
+        return goalMet ? pack(0, INF) : pack(INF, 0);
+    }
+
+    private boolean hasOpenLine(int side) {
+        // Usually settled by the counters; only lines without any stone need the scan
+        for (int marks = 1; marks < board.winLength; marks++) {
+            if (board.counters.openCount(side, marks) > 0) return true;
+        }
+        long opponent = board.stones[side ^ 1];
+        for (long line : board.winLines.lines) {
+            if ((opponent & line) == 0) return true;
+        }
+        return false;
+    }
+
+    private long key() {
+        return attacker == BitBoard.O ? board.canonicalHash() ^ O_ATTACKS_KEY : board.canonicalHash();
+    }
+
+    private static long pack(int phi, int delta) {
+        return phi | (long) delta << 31 | 1L << 62; // never 0, so 0 can mean "unknown"
+    }
+
+    static int phi(long entry) {
+        return (int) (entry & 0x7FFFFFFF);
+    }
+
+    static int delta(long entry) {
+        return (int) (entry >>> 31) & 0x7FFFFFFF;
+    }
+
+    /*
+     * Two-way buckets of (key, packed phi/delta). Like TranspositionTable the key is stored
+     * XOR-ed with the entry, so a slot torn by another thread reads as a miss. Solved entries
+     * are kept over unsolved ones: they are what makes proven lines instant.
+     */
+    static final class Table {
+        private final long[] keys;
+        private final long[] data;
+        private final int mask;
+
+        Table(int sizeBits) {
+            keys = new long[1 << sizeBits];
+            data = new long[1 << sizeBits];
+            mask = (1 << sizeBits) - 1;
+        }
+
+        long probe(long key) {
+            int slot = (int) key & mask;
+            long entry = data[slot];
+            if (entry != 0 && (keys[slot] ^ entry) == key) return entry;
+            entry = data[slot ^ 1];
+            if (entry != 0 && (keys[slot ^ 1] ^ entry) == key) return entry;
+            return 0L;
+        }
+
+        void store(long key, int phi, int delta) {
+            int slot = (int) key & mask;
+            int other = slot ^ 1;
+            if (!holds(slot, key)) {
+                if (holds(other, key) || (isSolved(data[slot]) && !isSolved(data[other]))) slot = other;
+            }
+            long entry = pack(phi, delta);
+            keys[slot] = key ^ entry;
+            data[slot] = entry;
+        }
+
+        private boolean holds(int slot, long key) {
+            return data[slot] != 0 && (keys[slot] ^ data[slot]) == key;
+        }
+
+        private static boolean isSolved(long entry) {
+            return entry != 0 && (phi(entry) == 0 || delta(entry) == 0);
+        }
+
+        int used() {
+            int used = 0;
+            for (long entry : data) {
+                if (entry != 0) used++;
+            }
+            return used;
+        }
+    }
+}
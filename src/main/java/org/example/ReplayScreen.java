@@ -0,0 +1,159 @@
+package main.java.org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replay screen: pick one of the most recently recorded games and step through it move by
+ * move, with the time each move took.
+ */
+public class ReplayScreen {
+    // Games offered in the list, newest first
+    private static final int RECENT_GAMES = 100;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("d MMM HH:mm", Locale.ROOT)
+            .withZone(ZoneId.systemDefault());
+
+    /* -------------------- UI Components -------------------- */
+    private final DefaultComboBoxModel<String> gameChoices = new DefaultComboBoxModel<>();
+    private BoardView board; // The selected game's cells
+    private JLabel moveLabel; // "Move 3 of 9 (X, 1.2 s)"
+
+    /* -------------------- Replay State -------------------- */
+    private final List<GameRecord> games = new ArrayList<>();
+    private GameRecord record; // game being replayed, null if there are none
+    private GameState state; // record played out in full, then stepped through with undo/redo
+    private int shown; // moves on the board
+
+    /* -------------------- Navigation -------------------- */
+    private final CardLayout cardLayout;
+    private final JPanel mainPanel;
+
+    public ReplayScreen(CardLayout cardLayout, JPanel mainPanel) {
+        this.cardLayout = cardLayout;
+        this.mainPanel = mainPanel;
+    }
+
+    // Builds the replay panel; call reload() whenever it is shown to pick up new games
+    public JPanel replayUi() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(Color.darkGray);
+
+        /* -------------------- Heading (game choice) -------------------- */
+        JComboBox<String> gameDropdown = new JComboBox<>(gameChoices);
+        gameDropdown.setFont(new Font("Arial", Font.PLAIN, 14));
+        gameDropdown.addActionListener(e -> select(gameDropdown.getSelectedIndex()));
+        JPanel headingPanel = new JPanel(new BorderLayout());
+        headingPanel.setBackground(Color.darkGray);
+        headingPanel.setBorder(BorderFactory.createEmptyBorder(10, 40, 10, 40));
+        headingPanel.add(gameDropdown, BorderLayout.CENTER);
+        panel.add(headingPanel, BorderLayout.NORTH);
+
+        /* -------------------- Board -------------------- */
+        board = new BoardView();
+        panel.add(board, BorderLayout.CENTER);
+
+        /* -------------------- Footer (stepping + back) -------------------- */
+        moveLabel = new JLabel(" ", SwingConstants.CENTER);
+        moveLabel.setForeground(Color.white);
+        moveLabel.setFont(new Font("Arial", Font.BOLD, 15));
+
+        JPanel stepPanel = new JPanel();
+        stepPanel.setBackground(Color.darkGray);
+        stepPanel.add(stepButton("|<", () -> show(0)));
+        stepPanel.add(stepButton("<", () -> show(shown - 1)));
+        stepPanel.add(stepButton(">", () -> show(shown + 1)));
+        stepPanel.add(stepButton(">|", () -> show(record == null ? 0 : record.moveCount())));
+
+        JButton backButton = new JButton("Back to Home");
+        backButton.setFont(new Font("Arial", Font.BOLD, 15));
+        backButton.addActionListener(e -> cardLayout.show(mainPanel, "Intro"));
+
+        JPanel footerPanel = new JPanel(new BorderLayout());
+        footerPanel.setBackground(Color.darkGray);
+        footerPanel.setBorder(BorderFactory.createEmptyBorder(10, 40, 10, 40));
+        footerPanel.add(moveLabel, BorderLayout.NORTH);
+        footerPanel.add(stepPanel, BorderLayout.CENTER);
+        footerPanel.add(backButton, BorderLayout.EAST);
+        panel.add(footerPanel, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+    private static JButton stepButton(String text, Runnable action) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Arial", Font.BOLD, 15));
+        button.setFocusable(false);
+        button.addActionListener(e -> action.run());
+        return button;
+    }
+
+    // Reads the newest games from the log and shows the latest one
+    public void reload() {
+        games.clear();
+        gameChoices.removeAllElements();
+        Path file = GameLog.defaultFile();
+        if (Files.exists(file)) {
+            try (GameLogReader reader = GameLogReader.open(file)) {
+                // Only the offsets of the last RECENT_GAMES records are kept while scanning
+                long[] recent = new long[RECENT_GAMES];
+                long[] seen = new long[1];
+                long count = reader.scan(entry -> recent[(int) (seen[0]++ % RECENT_GAMES)] = entry.offset());
+                for (long i = count - 1; i >= Math.max(0, count - RECENT_GAMES); i--) {
+                    games.add(reader.read(recent[(int) (i % RECENT_GAMES)]));
+                }
+            } catch (IOException e) {
+                System.err.println("Could not read recorded games: " + e);
+            }
+        }
+        for (GameRecord game : games) gameChoices.addElement(describe(game));
+        select(games.isEmpty() ? -1 : 0);
+    }
+
+    private static String describe(GameRecord game) {
+        return String.format(Locale.ROOT, "%s   %dx%d k%d   %s vs %s   %s in %d",
+                DATE.format(Instant.ofEpochSecond(game.startSeconds())), game.rows(), game.cols(), game.winLength(),
+                game.xPlayer(), game.oPlayer(), game.resultText(), game.moveCount());
+    }
+
+    private void select(int index) {
+        record = index < 0 || index >= games.size() ? null : games.get(index);
+        if (record == null) {
+            board.setBoard(0, 0);
+            moveLabel.setText("No recorded games yet");
+        } else {
+            board.setBoard(record.rows(), record.cols());
+            state = record.replay(record.moveCount());
+            show(record.moveCount());
+        }
+    }
+
+    // Shows the position after the first count moves
+    private void show(int count) {
+        if (record == null) return;
+        shown = Math.max(0, Math.min(record.moveCount(), count));
+        while (state.turns() > shown) state.undo();
+        while (state.turns() < shown) state.redo();
+        // Only the cells that differ from the previous step are repainted
+        board.show(state);
+        if (shown > 0) board.setStyle(state.lastMove(), BoardView.LAST_MOVE);
+        for (int i = 0; i < state.winningCount(); i++) board.setStyle(state.winningCell(i), BoardView.WIN);
+
+        if (shown == 0) {
+            moveLabel.setText(String.format(Locale.ROOT, "Start: %d moves, %s", record.moveCount(), record.resultText()));
+        } else {
+            int mover = state.get(state.lastMove());
+            moveLabel.setText(String.format(Locale.ROOT, "Move %d of %d (%s, %.1f s)%s", shown, record.moveCount(),
+                    GameState.symbol(mover), record.moveMillis()[shown - 1] / 1000.0,
+                    shown == record.moveCount() ? " - " + record.resultText() : ""));
+        }
+    }
+}
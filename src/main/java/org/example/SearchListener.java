@@ -0,0 +1,7 @@
+package main.java.org.example;
+
+// Told about every finished AI search; called on the searching thread, so keep it quick
+@FunctionalInterface
+public interface SearchListener {
+    void searchFinished(SearchStats stats);
+}
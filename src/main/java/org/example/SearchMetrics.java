@@ -0,0 +1,136 @@
+package main.java.org.example;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Running totals and the last search's statistics, published over JMX. Attach shared() as
+ * (or from) a SearchListener; nothing is collected while no listener is attached.
+ */
+public final class SearchMetrics implements SearchListener, SearchMetricsMXBean {
+    public static final String OBJECT_NAME = "main.java.org.example:type=SearchMetrics";
+
+    private static SearchMetrics shared;
+
+    private long searchCount;
+    private long totalNodes;
+    private long totalWallNanos;
+    private volatile SearchStats last;
+
+    // The instance registered with the platform MBean server, registered on first use
+    public static synchronized SearchMetrics shared() {
+        if (shared == null) {
+            shared = new SearchMetrics();
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                server.registerMBean(shared, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                System.err.println("Search metrics not published over JMX: " + e);
+            }
+        }
+        return shared;
+    }
+
+    @Override
+    public synchronized void searchFinished(SearchStats stats) {
+        searchCount++;
+        totalNodes += stats.nodes();
+        totalWallNanos += stats.wallNanos();
+        last = stats;
+    }
+
+    @Override
+    public synchronized long getSearchCount() {
+        return searchCount;
+    }
+
+    @Override
+    public synchronized long getTotalNodes() {
+        return totalNodes;
+    }
+
+    @Override
+    public synchronized double getTotalWallMillis() {
+        return totalWallNanos / 1e6;
+    }
+
+    @Override
+    public synchronized double getAverageNodesPerSecond() {
+        return totalWallNanos == 0 ? 0 : totalNodes * 1e9 / totalWallNanos;
+    }
+
+    // Last search, or null before the first one
+    public SearchStats getLast() {
+        return last;
+    }
+
+    @Override
+    public String getLastEngine() {
+        SearchStats s = last;
+        return s == null ? "" : s.engine();
+    }
+
+    @Override
+    public long getLastNodes() {
+        SearchStats s = last;
+        return s == null ? 0 : s.nodes();
+    }
+
+    @Override
+    public long getLastCutoffs() {
+        SearchStats s = last;
+        return s == null ? 0 : s.cutoffs();
+    }
+
+    @Override
+    public long getLastTableHits() {
+        SearchStats s = last;
+        return s == null ? 0 : s.tableHits();
+    }
+
+    @Override
+    public int getLastCompletedDepth() {
+        SearchStats s = last;
+        return s == null ? 0 : s.completedDepth();
+    }
+
+    @Override
+    public int getLastMaxDepth() {
+        SearchStats s = last;
+        return s == null ? 0 : s.maxDepth();
+    }
+
+    @Override
+    public double getLastBranchingFactor() {
+        SearchStats s = last;
+        return s == null ? 0 : s.branchingFactor();
+    }
+
+    @Override
+    public double getLastWallMillis() {
+        SearchStats s = last;
+        return s == null ? 0 : s.wallMillis();
+    }
+
+    @Override
+    public long getLastAllocatedBytes() {
+        SearchStats s = last;
+        return s == null ? 0 : s.allocatedBytes();
+    }
+
+    @Override
+    public String getLastSummary() {
+        SearchStats s = last;
+        return s == null ? "" : s.summary();
+    }
+
+    @Override
+    public synchronized void reset() {
+        searchCount = 0;
+        totalNodes = 0;
+        totalWallNanos = 0;
+        last = null;
+    }
+}
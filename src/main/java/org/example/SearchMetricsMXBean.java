@@ -0,0 +1,34 @@
+package main.java.org.example;
+
+// JMX view of SearchMetrics (jconsole: main.java.org.example / SearchMetrics)
+public interface SearchMetricsMXBean {
+    long getSearchCount();
+
+    long getTotalNodes();
+
+    double getTotalWallMillis();
+
+    double getAverageNodesPerSecond();
+
+    String getLastEngine();
+
+    long getLastNodes();
+
+    long getLastCutoffs();
+
+    long getLastTableHits();
+
+    int getLastCompletedDepth();
+
+    int getLastMaxDepth();
+
+    double getLastBranchingFactor();
+
+    double getLastWallMillis();
+
+    long getLastAllocatedBytes();
+
+    String getLastSummary();
+
+    void reset();
+}
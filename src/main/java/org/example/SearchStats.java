@@ -0,0 +1,27 @@
+package main.java.org.example;
+
+import java.util.Locale;
+
+/**
+ * What one AI search did. nodes are playouts for MCTS, which has no cutoffs or table;
+ * completedDepth is the deepest finished iteration (0 for MCTS and book moves), maxDepth the
+ * deepest ply visited. allocatedBytes counts the searching thread only, -1 if the JVM can't tell.
+ */
+public record SearchStats(String engine, String difficulty, int move, long nodes, long cutoffs, long tableHits,
+                          int completedDepth, int maxDepth, double branchingFactor, long wallNanos,
+                          long allocatedBytes) {
+    public double wallMillis() {
+        return wallNanos / 1e6;
+    }
+
+    public double nodesPerSecond() {
+        return wallNanos == 0 ? 0 : nodes * 1e9 / wallNanos;
+    }
+
+    // One line for the game screen overlay and logs
+    public String summary() {
+        return String.format(Locale.ROOT, "%s: %,d nodes in %.1f ms (%,.0f/s), depth %d/%d, EBF %.2f, %,d cutoffs, %,d TT hits%s",
+                engine, nodes, wallMillis(), nodesPerSecond(), completedDepth, maxDepth, branchingFactor,
+                cutoffs, tableHits, allocatedBytes < 0 ? "" : String.format(Locale.ROOT, ", %,d B allocated", allocatedBytes));
+    }
+}
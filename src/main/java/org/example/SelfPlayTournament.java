@@ -0,0 +1,310 @@
+package main.java.org.example;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Headless AI-vs-AI matches for measuring engine strength and speed. Every pairing plays
+ * its games in parallel on a ForkJoinPool, with the two difficulties swapping X and O every
+ * game; each pair of games starts from the same random opening so neither side is favoured.
+ * Records win/draw/loss, per-move latency percentiles and nodes searched for both sides.
+ */
+public class SelfPlayTournament {
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int games;
+    private final long moveBudgetMillis;
+    private final long mctsBudgetMillis;
+    private final int mctsThreads;
+    private final int randomPlies;
+    private final long seed;
+    private final int parallelism;
+    private GameLog log; // every game is appended here when set
+
+    // Engines are big (MCTS node pools, search buffers), so each pool thread keeps its own and reuses them
+    private final ThreadLocal<Map<String, AiPlayer>> players = ThreadLocal.withInitial(HashMap::new);
+
+    /** Two difficulties ("Easy", "Medium", "Hard" or "MCTS") that play each other. */
+    public record Pairing(String first, String second) {
+        public Pairing {
+            for (String difficulty : new String[] { first, second }) {
+                if (!List.of("Easy", "Medium", "Hard", "MCTS").contains(difficulty))
+                    throw new IllegalArgumentException("Unknown difficulty " + difficulty);
+            }
+        }
+
+        // Parses "Hard:Medium"
+        public static Pairing parse(String text) {
+            String[] parts = text.split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("Pairing must look like Hard:Medium, got " + text);
+            return new Pairing(parts[0], parts[1]);
+        }
+    }
+
+    /**
+     * Tournament on a rows x cols board with winLength in a row. Each pairing plays games games
+     * (rounded up to an even number); the first randomPlies moves of every game are random.
+     */
+    public SelfPlayTournament(int rows, int cols, int winLength, int games, long moveBudgetMillis,
+                              long mctsBudgetMillis, int mctsThreads, int randomPlies, long seed, int parallelism) {
+        new GameSettings(rows, cols, winLength, "Easy", "X"); // validates the board
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.games = games + (games & 1);
+        this.moveBudgetMillis = moveBudgetMillis;
+        this.mctsBudgetMillis = mctsBudgetMillis;
+        this.mctsThreads = mctsThreads;
+        this.randomPlies = Math.min(randomPlies, rows * cols - 1);
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    // Records every game played from now on in log
+    public void setGameLog(GameLog log) {
+        this.log = log;
+    }
+
+    // Plays every pairing in turn and returns one result per pairing
+    public List<Result> run(List<Pairing> pairings) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Result> results = new ArrayList<>();
+            for (Pairing pairing : pairings) results.add(play(pool, pairing));
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Result play(ForkJoinPool pool, Pairing pairing) {
+        long start = System.nanoTime();
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>(games);
+        for (int game = 0; game < games; game++) {
+            int index = game;
+            tasks.add(pool.submit(() -> playGame(pairing, index)));
+        }
+        Result total = new Result(pairing);
+        for (ForkJoinTask<Result> task : tasks) total.add(task.join());
+        total.wallNanos = System.nanoTime() - start;
+        return total;
+    }
+
+    // One game; the first difficulty plays X in even games and O in odd ones
+    private Result playGame(Pairing pairing, int game) {
+        boolean firstIsX = (game & 1) == 0;
+        AiPlayer x = player(firstIsX ? pairing.first() : pairing.second(), "X");
+        AiPlayer o = player(firstIsX ? pairing.second() : pairing.first(), "O");
+        Result result = new Result(pairing);
+        Side xStats = firstIsX ? result.first : result.second;
+        Side oStats = firstIsX ? result.second : result.first;
+
+        GameState state = new GameState(rows, cols, winLength, GameState.X);
+        int[] moveMillis = new int[rows * cols];
+        long startSeconds = System.currentTimeMillis() / 1000;
+        SplittableRandom opening = new SplittableRandom(seed + game / 2); // same opening for both colourings
+        while (!state.isOver()) {
+            int move;
+            if (state.turns() < randomPlies) {
+                move = randomEmptyCell(state, opening);
+            } else {
+                boolean xToMove = state.currentPlayer() == GameState.X;
+                AiPlayer player = xToMove ? x : o;
+                long t0 = System.nanoTime();
+                move = player.chooseMove(state);
+                long nanos = System.nanoTime() - t0;
+                (xToMove ? xStats : oStats).record(nanos, player.getLastNodes());
+                moveMillis[state.turns()] = (int) (nanos / 1_000_000);
+            }
+            if (move < 0 || !state.play(move))
+                throw new IllegalStateException("Illegal move " + move + " in " + pairing + ", game " + game);
+        }
+
+        if (log != null) {
+            String xPlayer = firstIsX ? pairing.first() : pairing.second();
+            String oPlayer = firstIsX ? pairing.second() : pairing.first();
+            try {
+                log.append(GameRecord.of(state, xPlayer, oPlayer, startSeconds, moveMillis));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        result.games = 1;
+        int winner = state.getWinner();
+        if (winner == GameState.EMPTY) result.draws = 1;
+        else if ((winner == GameState.X) == firstIsX) result.firstWins = 1;
+        else result.secondWins = 1;
+        return result;
+    }
+
+    private AiPlayer player(String difficulty, String side) {
+        AiPlayer player = players.get().computeIfAbsent(difficulty + side, key -> new AiPlayer(
+                new GameSettings(rows, cols, winLength, difficulty, side),
+                side, moveBudgetMillis, mctsBudgetMillis, mctsThreads));
+        player.newGame();
+        return player;
+    }
+
+    private static int randomEmptyCell(GameState state, SplittableRandom random) {
+        int skip = random.nextInt(state.cellCount() - state.turns());
+        for (int cell = 0; ; cell++) {
+            if (state.isEmpty(cell) && skip-- == 0) return cell;
+        }
+    }
+
+    /** Outcome of a pairing (or of one of its games), from the first difficulty's point of view. */
+    public static final class Result {
+        public final Pairing pairing;
+        public final Side first = new Side();
+        public final Side second = new Side();
+        public int games;
+        public int firstWins;
+        public int draws;
+        public int secondWins;
+        public long wallNanos;
+
+        Result(Pairing pairing) {
+            this.pairing = pairing;
+        }
+
+        void add(Result game) {
+            games += game.games;
+            firstWins += game.firstWins;
+            draws += game.draws;
+            secondWins += game.secondWins;
+            first.add(game.first);
+            second.add(game.second);
+        }
+
+        // Games per second of wall time over the whole pairing
+        public double gamesPerSecond() {
+            return wallNanos == 0 ? 0 : games * 1e9 / wallNanos;
+        }
+    }
+
+    /** Move latencies and search effort of one difficulty over its games. */
+    public static final class Side {
+        private long[] latencies = new long[64]; // nanoseconds, one per move
+        private int moves;
+        private long nodes;
+        private long searchNanos;
+        private boolean sorted;
+
+        void record(long nanos, long nodeCount) {
+            if (moves == latencies.length) latencies = Arrays.copyOf(latencies, moves * 2);
+            latencies[moves++] = nanos;
+            nodes += nodeCount;
+            searchNanos += nanos;
+            sorted = false;
+        }
+
+        void add(Side other) {
+            if (moves + other.moves > latencies.length)
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, moves + other.moves));
+            System.arraycopy(other.latencies, 0, latencies, moves, other.moves);
+            moves += other.moves;
+            nodes += other.nodes;
+            searchNanos += other.searchNanos;
+            sorted = false;
+        }
+
+        public int moves() {
+            return moves;
+        }
+
+        public long nodes() {
+            return nodes;
+        }
+
+        public double nodesPerMove() {
+            return moves == 0 ? 0 : (double) nodes / moves;
+        }
+
+        public double nodesPerSecond() {
+            return searchNanos == 0 ? 0 : nodes * 1e9 / searchNanos;
+        }
+
+        public double meanMillis() {
+            return moves == 0 ? 0 : searchNanos / 1e6 / moves;
+        }
+
+        // Nearest-rank percentile of the move latencies, in milliseconds
+        public double percentileMillis(double percentile) {
+            if (moves == 0) return 0;
+            if (!sorted) {
+                Arrays.sort(latencies, 0, moves);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * moves);
+            return latencies[Math.max(0, Math.min(moves, rank) - 1)] / 1e6;
+        }
+    }
+
+    // One row per pairing, both sides' statistics side by side
+    public void writeCsv(List<Result> results, Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.print("rows,cols,k,first,second,games,first_wins,draws,second_wins,games_per_sec");
+            for (String side : new String[] { "first", "second" }) {
+                out.print("," + side + "_moves," + side + "_p50_ms," + side + "_p90_ms," + side + "_p99_ms,"
+                        + side + "_max_ms," + side + "_mean_ms," + side + "_nodes," + side + "_nodes_per_move,"
+                        + side + "_nodes_per_sec");
+            }
+            out.println();
+            for (Result r : results) {
+                out.print(String.format(Locale.ROOT, "%d,%d,%d,%s,%s,%d,%d,%d,%d,%.2f", rows, cols, winLength,
+                        r.pairing.first(), r.pairing.second(), r.games, r.firstWins, r.draws, r.secondWins,
+                        r.gamesPerSecond()));
+                for (Side s : new Side[] { r.first, r.second }) {
+                    out.print(String.format(Locale.ROOT, ",%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%.1f,%.0f", s.moves(),
+                            s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                            s.percentileMillis(100), s.meanMillis(), s.nodes(), s.nodesPerMove(), s.nodesPerSecond()));
+                }
+                out.println();
+            }
+        }
+    }
+
+    public void writeJson(List<Result> results, Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("{");
+            out.printf(Locale.ROOT, "  \"rows\": %d, \"cols\": %d, \"k\": %d, \"gamesPerPairing\": %d,%n",
+                    rows, cols, winLength, games);
+            out.printf(Locale.ROOT, "  \"moveBudgetMillis\": %d, \"mctsBudgetMillis\": %d, \"randomPlies\": %d, \"seed\": %d,%n",
+                    moveBudgetMillis, mctsBudgetMillis, randomPlies, seed);
+            out.println("  \"pairings\": [");
+            for (int i = 0; i < results.size(); i++) {
+                Result r = results.get(i);
+                out.println("    {");
+                out.printf(Locale.ROOT, "      \"first\": \"%s\", \"second\": \"%s\",%n", r.pairing.first(), r.pairing.second());
+                out.printf(Locale.ROOT, "      \"games\": %d, \"firstWins\": %d, \"draws\": %d, \"secondWins\": %d, \"gamesPerSecond\": %.2f,%n",
+                        r.games, r.firstWins, r.draws, r.secondWins, r.gamesPerSecond());
+                out.println("      \"firstStats\": " + json(r.first) + ",");
+                out.println("      \"secondStats\": " + json(r.second));
+                out.println(i + 1 < results.size() ? "    }," : "    }");
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+    }
+
+    private static String json(Side s) {
+        return String.format(Locale.ROOT, "{ \"moves\": %d, \"p50Millis\": %.3f, \"p90Millis\": %.3f, \"p99Millis\": %.3f, "
+                        + "\"maxMillis\": %.3f, \"meanMillis\": %.3f, \"nodes\": %d, \"nodesPerMove\": %.1f, \"nodesPerSecond\": %.0f }",
+                s.moves(), s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                s.percentileMillis(100), s.meanMillis(), s.nodes(), s.nodesPerMove(), s.nodesPerSecond());
+    }
+}
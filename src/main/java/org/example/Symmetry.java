@@ -0,0 +1,106 @@
+package main.java.org.example;
+
+/**
+ * The 8 symmetries of a square board (rotations and reflections).
+ * Symmetry s moves cell c to apply(s, c); invert(s, c) is the way back.
+ * Also holds the Zobrist keys seen through each symmetry, so a board can
+ * keep the hash of all 8 transformed positions up to date on every move.
+ */
+public final class Symmetry {
+    public static final int COUNT = 8;
+    public static final int IDENTITY = 0;
+
+    private static final Symmetry[] CACHE = new Symmetry[WinLines.MAX_SIZE + 1];
+
+    final int size;
+    final int[][] map; // map[s][cell] = image of cell under s
+    final int[][] inverse; // inverse[s][map[s][cell]] = cell
+    final long[][][] keys; // keys[s][side][cell] = Zobrist key of the image cell
+
+    private Symmetry(int size) {
+        this.size = size;
+        int cells = size * size;
+        int n = size - 1;
+        map = new int[COUNT][cells];
+        inverse = new int[COUNT][cells];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int[][] images = {
+                        { row, col }, // identity
+                        { col, n - row }, // rotate 90° clockwise
+                        { n - row, n - col }, // rotate 180°
+                        { n - col, row }, // rotate 270° clockwise
+                        { row, n - col }, // mirror left-right
+                        { n - row, col }, // mirror top-bottom
+                        { col, row }, // mirror on the main diagonal
+                        { n - col, n - row } // mirror on the anti-diagonal
+                };
+                for (int s = 0; s < COUNT; s++) {
+                    int cell = row * size + col;
+                    int image = images[s][0] * size + images[s][1];
+                    map[s][cell] = image;
+                    inverse[s][image] = cell;
+                }
+            }
+        }
+
+        Zobrist zobrist = Zobrist.of(cells);
+        keys = new long[COUNT][2][cells];
+        for (int s = 0; s < COUNT; s++) {
+            for (int side = 0; side < 2; side++) {
+                for (int cell = 0; cell < cells; cell++) {
+                    keys[s][side][cell] = zobrist.keys[side][map[s][cell]];
+                }
+            }
+        }
+    }
+
+    public static Symmetry of(int size) {
+        synchronized (CACHE) {
+            Symmetry cached = CACHE[size];
+            if (cached == null) {
+                cached = new Symmetry(size);
+                CACHE[size] = cached;
+            }
+            return cached;
+        }
+    }
+
+    // Cell that `cell` moves to under symmetry s
+    public int apply(int s, int cell) {
+        return map[s][cell];
+    }
+
+    // Maps a cell of the transformed board back to the original orientation
+    public int invert(int s, int cell) {
+        return inverse[s][cell];
+    }
+
+    // Transforms a whole set of cells
+    public long apply(int s, long bits) {
+        long result = 0L;
+        while (bits != 0) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            result |= 1L << map[s][cell];
+        }
+        return result;
+    }
+
+    // Bit set of the symmetries that leave the position (x and o stones) unchanged
+    public int invariants(long x, long o) {
+        int found = 1 << IDENTITY;
+        for (int s = 1; s < COUNT; s++) {
+            if (apply(s, x) == x && apply(s, o) == o) found |= 1 << s;
+        }
+        return found;
+    }
+
+    // True if an invariant symmetry maps cell onto an earlier cell, i.e. the move repeats an earlier one
+    public boolean isDuplicateMove(int invariants, int cell) {
+        for (int s = 1; s < COUNT; s++) {
+            if ((invariants & (1 << s)) != 0 && map[s][cell] < cell) return true;
+        }
+        return false;
+    }
+}
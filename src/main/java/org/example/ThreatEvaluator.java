@@ -0,0 +1,35 @@
+package main.java.org.example;
+
+/**
+ * Threat-counting heuristic: every open window (no opposing mark) is worth more the more
+ * marks it already holds, and the opponent's open windows count against. A side to move
+ * that can complete a line, or an opponent threatening two different cells (only one can
+ * be blocked), settles the position even though the search stopped before seeing it. All
+ * inputs are read from the line counters, so a call costs O(winLength) unless the opponent
+ * has several threat windows, whose missing cells are then compared.
+ */
+public final class ThreatEvaluator implements Evaluator {
+    public static final ThreatEvaluator INSTANCE = new ThreatEvaluator();
+
+    // Completing a line next move beats any amount of positional advantage
+    private static final int WINNING_THREAT = MAX_SCORE / 2;
+
+    private ThreatEvaluator() {
+    }
+
+    @Override
+    public int evaluate(LineCounters counters, int sideToMove) {
+        int k = counters.winLength();
+        int side = sideToMove;
+        int opp = side ^ 1;
+
+        if (counters.threatCount(side) > 0) return WINNING_THREAT;
+        int score = counters.hasDoubleThreat(opp) ? -WINNING_THREAT : 0;
+
+        // Weight 8^(marks - 1): one window a mark further along outweighs several behind it
+        for (int marks = 1; marks < k; marks++) {
+            score += (counters.openCount(side, marks) - counters.openCount(opp, marks)) << (3 * (marks - 1));
+        }
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+}
@@ -11,10 +11,9 @@ public class TicTacToe {
     // Main game window
     JFrame frame = new JFrame("Nelani's Tic-Tac-Toe");
 
-    // Constructor initializes the window and first screen
+    // Constructor initializes the window and first screen; call on the event dispatch thread
     public TicTacToe() {
-        // Configure main frame (game window)
-        frame.setVisible(true);
+        // Configure main frame (game window); it is shown once the intro screen is in it
         frame.setSize(boarderWidth, boarderHeight);
         frame.setLocationRelativeTo(null);
         frame.setResizable(false);
@@ -36,5 +35,12 @@ public class TicTacToe {
 
         // Display Intro screen by default
         cardLayout.show(mainPanel, "Intro");
+
+        if (Boolean.getBoolean("tictactoe.latency")) {
+            // Measured once the first paint has been queued, from the JVM's own start
+            SwingUtilities.invokeLater(() -> ProcessHandle.current().info().startInstant().ifPresent(start ->
+                    System.out.printf("Intro screen shown %d ms after JVM start%n",
+                            System.currentTimeMillis() - start.toEpochMilli())));
+        }
     }
 }
@@ -2,34 +2,52 @@ package main.java.org.example;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class TicTacToeUI {
     /* -------------------- UI Components -------------------- */
     private JLabel textLabel; // Shows game status (e.g., "X's turn", "AI won")
-    private JButton[][] board; // 2D array of buttons representing the Tic-Tac-Toe grid
+    private BoardView board; // Painted board rendering the game state
     private JLabel xScoreLabel; // Label for human score
     private JLabel oScoreLabel; // Label for AI score
+    private JLabel statsLabel; // Last AI search statistics, only with -Dtictactoe.stats=true
+    private JButton undoButton; // Takes back the human's last move (and the AI's reply)
+    private JButton redoButton;
 
     /* -------------------- Game State -------------------- */
+    private GameState game; // Board, turn and result; BoardView only displays it
     private String human; // Symbol for human player ("X" or "O")
     private String ai; // Symbol for AI player
-    private String currentPlayer; // Tracks whose turn it is
-    private int boardSize; // Size of the board (3, 4, or 5)
-    private boolean gameOver = false; // Flag to indicate if game has ended
-    private boolean isTie = false; // Flag for tie game
-    private int turns = 0; // Counter for moves played
-    private int humanScore = 0; // Tracks human player's wins
-    private int aiScore = 0; // Tracks AI player's wins
+    private int rows; // Board height (3 to 15)
+    private int cols; // Board width
+    // Wins {human, AI} per board and opponent (see scoreKey), all recorded games included once loaded
+    private final Map<String, int[]> scores = new HashMap<>();
+    private boolean scoresRequested; // the game log is read once, at the first game
+
+    /* -------------------- Recording -------------------- */
+    private int[] moveMillis; // time taken by each move so far
+    private long lastMoveNanos; // when the previous move was played (or the game started)
+    private long gameStartSeconds;
 
     /* -------------------- Navigation -------------------- */
     private final CardLayout cardLayout; // CardLayout to switch between screens
     private final JPanel mainPanel; // Main container panel holding all screens
     private GameSettings gameSettings; // Holds current game configuration (board size, difficulty, symbol)
 
+    /* -------------------- AI -------------------- */
+    private AiService aiService; // Searches off the event thread; kept for the game so its cache is reused
+    private final EdtLatencyMonitor latencyMonitor = new EdtLatencyMonitor();
+    private static final boolean REPORT_LATENCY = Boolean.getBoolean("tictactoe.latency");
+    // Collects search statistics (shown under the board and published over JMX); off by default
+    private static final boolean SHOW_STATS = Boolean.getBoolean("tictactoe.stats");
+    private volatile SearchStats lastStats; // written on the search thread before the move is handed over
+
     /**
      * Constructor for TicTacToeUI.
      *
@@ -44,19 +62,9 @@ public class TicTacToeUI {
     /**
      * Builds and returns the main game UI panel for Tic-Tac-Toe.
      * Includes heading (scores + title), game board, and footer (buttons).
+     * Built once and reused: start() sets up each new game on it.
      */
-    public JPanel gameUi(GameSettings gameSettings) {
-        this.gameSettings = gameSettings;
-        boardSize = gameSettings.boardSize();
-
-        // Assign player symbols
-        human = gameSettings.playAs();
-        ai = !human.equals("X") ? "X" : "O";
-
-        // Initialize board and current player
-        board = new JButton[boardSize][boardSize];
-        currentPlayer = human;
-
+    public JPanel gameUi() {
         JPanel gamePanel = new JPanel(new BorderLayout());
 
         /* -------------------- Heading (Scores + Title) -------------------- */
@@ -66,14 +74,14 @@ public class TicTacToeUI {
         headingPanel.setBorder(BorderFactory.createEmptyBorder(0, 40, 0, 40));
 
         // Human score
-        xScoreLabel = new JLabel("Human: " + humanScore, SwingConstants.CENTER);
+        xScoreLabel = new JLabel("Human: 0", SwingConstants.CENTER);
         xScoreLabel.setBackground(Color.darkGray);
         xScoreLabel.setForeground(Color.white);
         xScoreLabel.setFont(new Font("Arial", Font.BOLD, 18));
         xScoreLabel.setOpaque(true);
 
         // AI score
-        oScoreLabel = new JLabel("AI: " + aiScore, SwingConstants.CENTER);
+        oScoreLabel = new JLabel("AI: 0", SwingConstants.CENTER);
         oScoreLabel.setBackground(Color.darkGray);
         oScoreLabel.setForeground(Color.white);
         oScoreLabel.setFont(new Font("Arial", Font.BOLD, 18));
@@ -92,26 +100,9 @@ public class TicTacToeUI {
         gamePanel.add(headingPanel, BorderLayout.NORTH);
 
         /* -------------------- Game Board -------------------- */
-        JPanel boardPanel = new JPanel(new GridLayout(boardSize, boardSize));
-        boardPanel.setBackground(Color.darkGray);
-
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col < boardSize; col++) {
-                JButton tile = new JButton();
-                board[row][col] = tile;
-                boardPanel.add(tile);
-
-                // Tile styling
-                tile.setBackground(Color.darkGray);
-                tile.setForeground(Color.white);
-                tile.setFont(new Font("Arial", Font.BOLD, 80));
-                tile.setFocusable(false);
-
-                // Handle player move when clicked
-                tile.addActionListener(e -> handleMove(tile));
-            }
-        }
-        gamePanel.add(boardPanel, BorderLayout.CENTER);
+        board = new BoardView();
+        board.setCellListener(this::handleMove); // Handle player move when clicked
+        gamePanel.add(board, BorderLayout.CENTER);
 
         /* -------------------- Footer (Buttons) -------------------- */
         JPanel footerPanel = new JPanel(new BorderLayout());
@@ -123,7 +114,10 @@ public class TicTacToeUI {
         resetButton.setFont(new Font("Arial", Font.BOLD, 15));
         resetButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         resetButton.setMaximumSize(new Dimension(150, 25));
-        resetButton.addActionListener(e -> resetGame());
+        resetButton.addActionListener(e -> {
+            resetGame();
+            ponder();
+        });
 
         // Back button
         JButton backButton = new JButton("Back to Home");
@@ -131,212 +125,305 @@ public class TicTacToeUI {
         backButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         backButton.setMaximumSize(new Dimension(150, 25));
         backButton.addActionListener(e -> {
-            resetGame();
+            resetGame(); // also stops a running AI search and pondering
             cardLayout.show(mainPanel, "Intro");
         });
 
+        // Undo / redo buttons
+        undoButton = new JButton("Undo");
+        undoButton.setFont(new Font("Arial", Font.BOLD, 15));
+        undoButton.addActionListener(e -> undoMove());
+        redoButton = new JButton("Redo");
+        redoButton.setFont(new Font("Arial", Font.BOLD, 15));
+        redoButton.addActionListener(e -> redoMove());
+        JPanel historyPanel = new JPanel();
+        historyPanel.setBackground(Color.darkGray);
+        historyPanel.add(undoButton);
+        historyPanel.add(redoButton);
+
         footerPanel.add(resetButton, BorderLayout.WEST);
+        footerPanel.add(historyPanel, BorderLayout.CENTER);
         footerPanel.add(backButton, BorderLayout.EAST);
+
+        // Search statistics overlay
+        if (SHOW_STATS) {
+            statsLabel = new JLabel(" ", SwingConstants.CENTER);
+            statsLabel.setForeground(Color.lightGray);
+            statsLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+            statsLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 8, 0));
+            footerPanel.add(statsLabel, BorderLayout.NORTH);
+        }
         gamePanel.add(footerPanel, BorderLayout.SOUTH);
 
         return gamePanel;
     }
 
-    // Handles a move for either the human or AI player
-    private void handleMove(JButton tile) {
-        if (gameOver)
-            return; // ignore if game already ended
+    // Sets up a new game with these settings on the existing screen; call before showing it
+    public void start(GameSettings gameSettings) {
+        this.gameSettings = gameSettings;
+        rows = gameSettings.rows();
+        cols = gameSettings.cols();
+
+        // Assign player symbols
+        human = gameSettings.playAs();
+        ai = !human.equals("X") ? "X" : "O";
+        aiService = new AiService(gameSettings, ai, human); // engines are cached, so this is cheap
+        if (SHOW_STATS) {
+            SearchMetrics metrics = SearchMetrics.shared();
+            aiService.setSearchListener(stats -> {
+                metrics.searchFinished(stats);
+                lastStats = stats;
+            });
+            lastStats = null;
+            statsLabel.setText(" ");
+        }
+
+        // Initialize board; the human always moves first
+        game = new GameState(rows, cols, gameSettings.winLength(), GameState.player(human));
+        board.setBoard(rows, cols);
+        if (moveMillis == null || moveMillis.length < rows * cols) moveMillis = new int[rows * cols];
+        startRecording();
+        loadScores();
+        showScores();
+        textLabel.setText("Tic-Tac-Toe");
+        updateHistoryButtons();
+        ponder();
+    }
 
-        if (tile.getText().isEmpty()) {
-            tile.setText(currentPlayer); // place symbol
-            turns++;
-            checkWinner();
+    // Handles a click on a tile by the human player
+    private void handleMove(int cell) {
+        if (game.isOver() || aiService.isThinking())
+            return; // ignore if game already ended or the AI is still thinking
 
-            if (!gameOver) {
-                // Switch to other player and update status label
-                currentPlayer = Objects.equals(currentPlayer, human) ? ai : human;
-                textLabel.setText(currentPlayer + "'s turn");
-            }
+        if (game.play(cell)) {
+            showMove(cell);
 
-            // Trigger AI move automatically if it's AI's turn
-            if (!gameOver && currentPlayer.equals(ai)) {
+            // Trigger AI move automatically if it's AI's turn (its pondered answer, if it guessed this move)
+            if (!game.isOver()) {
                 aiMove();
-            }
-
-            // Update score if game ended with a winner
-            if (gameOver && !isTie) {
-                if (currentPlayer.equals(human))
-                    xScoreLabel.setText("Human: " + ++humanScore);
-                if (currentPlayer.equals(ai))
-                    oScoreLabel.setText("AI: " + ++aiScore);
+            } else {
+                aiService.cancel(); // stop pondering
             }
         }
     }
 
-    private void checkWinner() {
-        int length = 3;
-        if (boardSize > 4)
-            length = 4;
+    // Renders the move just played and the resulting game status
+    private void showMove(int cell) {
+        long now = System.nanoTime();
+        moveMillis[game.turns() - 1] = (int) ((now - lastMoveNanos) / 1_000_000);
+        lastMoveNanos = now;
+        if (game.isOver()) saveGame();
+
+        String player = GameState.symbol(game.get(cell));
+        board.setMark(cell, game.get(cell));
+
+        if (game.getWinner() != GameState.EMPTY) {
+            for (int i = 0; i < game.winningCount(); i++) board.setStyle(game.winningCell(i), BoardView.WIN);
+            textLabel.setText(player + " wins!");
+            updateScore();
+        } else if (game.isTie()) {
+            for (int c = 0; c < rows * cols; c++) board.setStyle(c, BoardView.TIE);
+            textLabel.setText("Tie");
+        } else {
+            textLabel.setText(GameState.symbol(game.currentPlayer()) + "'s turn");
+        }
+        updateHistoryButtons();
+    }
 
-        // Horizontal
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col <= boardSize - length; col++) { // length = 3
-                if (checkLine(row, col, 0, 1, length))
-                    return;
-            }
+    /*
+     * Undo goes back to the human's previous turn: the AI's reply (or the search for it) and
+     * the human's move are taken back together. A finished game has been scored and recorded,
+     * so it can only be reset. The AI's transposition table is keyed by position, so whatever
+     * it learned about the positions undone is still there when they come up again.
+     */
+    private void undoMove() {
+        if (game.isOver() || !game.canUndo()) return;
+        aiService.cancel();
+        latencyMonitor.stop();
+        clearTile(game.lastMove());
+        game.undo();
+        if (game.currentPlayer() != GameState.player(human) && game.canUndo()) {
+            clearTile(game.lastMove());
+            game.undo();
         }
+        lastMoveNanos = System.nanoTime();
+        textLabel.setText(game.turns() == 0 ? "Tic-Tac-Toe" : human + "'s turn");
+        updateHistoryButtons();
+        ponder();
+    }
 
-        // Vertical
-        for (int col = 0; col < boardSize; col++) {
-            for (int row = 0; row <= boardSize - length; row++) {
-                if (checkLine(row, col, 1, 0, length))
-                    return;
-            }
+    // Replays the human's undone move and the AI's reply to it; the AI searches again if it has none
+    private void redoMove() {
+        if (aiService.isThinking() || !game.redo()) return;
+        showMove(game.lastMove());
+        if (game.isOver()) return;
+        if (game.redo()) {
+            showMove(game.lastMove());
+            ponder();
+        } else {
+            aiMove();
         }
+    }
 
-        // Diagonal (top-left to bottom-right)
-        for (int row = 0; row <= boardSize - length; row++) {
-            for (int col = 0; col <= boardSize - length; col++) {
-                if (checkLine(row, col, 1, 1, length))
-                    return;
-            }
+    // Lets the AI think about its answers while it is the human's turn
+    private void ponder() {
+        if (!game.isOver()) aiService.ponder(game);
+    }
+
+    private void clearTile(int cell) {
+        board.setMark(cell, GameState.EMPTY);
+    }
+
+    private void updateHistoryButtons() {
+        undoButton.setEnabled(!game.isOver() && game.canUndo());
+        redoButton.setEnabled(!game.isOver() && game.canRedo() && !aiService.isThinking());
+    }
+
+    // pondered: the search ran during the human's turn, so the move itself took no time
+    private void showStats(SearchStats s, boolean pondered) {
+        statsLabel.setText(String.format(Locale.ROOT,
+                "<html><center>%s %s%s: %,d nodes in %.1f ms (%,.0f/s)<br>depth %d (max %d), EBF %.2f, %,d cutoffs, %,d TT hits%s</center></html>",
+                s.difficulty(), s.engine(), pondered ? " (pondered)" : "", s.nodes(), s.wallMillis(),
+                s.nodesPerSecond(), s.completedDepth(),
+                s.maxDepth(), s.branchingFactor(), s.cutoffs(), s.tableHits(),
+                s.allocatedBytes() < 0 ? "" : String.format(Locale.ROOT, ", %,d B allocated", s.allocatedBytes())));
+    }
+
+    private void startRecording() {
+        gameStartSeconds = System.currentTimeMillis() / 1000;
+        lastMoveNanos = System.nanoTime();
+    }
+
+    // Appends the game so far to the game log
+    private void saveGame() {
+        GameLog log = GameLog.shared();
+        if (log == null) return;
+        String xPlayer = human.equals("X") ? "Human" : gameSettings.difficulty();
+        String oPlayer = human.equals("O") ? "Human" : gameSettings.difficulty();
+        try {
+            log.append(GameRecord.of(game, xPlayer, oPlayer, gameStartSeconds, moveMillis));
+        } catch (IOException e) {
+            System.err.println("Could not record game: " + e);
         }
+    }
 
-        // Anti-diagonal (top-right to bottom-left)
-        for (int row = 0; row <= boardSize - length; row++) {
-            for (int col = length - 1; col < boardSize; col++) {
-                if (checkLine(row, col, 1, -1, length))
-                    return;
-            }
+    /*
+     * Scores carry over between sessions: every recorded game against this opponent on this board
+     * counts. The log is opened here, so the reader sees only the games recorded before this
+     * session, and scanned once off the EDT; its totals are added to the wins counted since.
+     */
+    private void loadScores() {
+        if (scoresRequested) return;
+        scoresRequested = true;
+        Path file = GameLog.defaultFile();
+        if (!Files.exists(file)) return;
+        GameLogReader opened;
+        try {
+            opened = GameLogReader.open(file);
+        } catch (IOException e) {
+            System.err.println("Could not read recorded games: " + e);
+            return;
         }
+        GameLogReader reader = opened;
+        new SwingWorker<Map<String, int[]>, Void>() {
+            @Override
+            protected Map<String, int[]> doInBackground() throws IOException {
+                Map<String, int[]> recorded = new HashMap<>();
+                try (reader) {
+                    reader.scan(entry -> {
+                        if (!entry.xPlayer().equals("Human") && !entry.oPlayer().equals("Human")) return; // AI vs AI
+                        if (entry.result() > GameState.O) return; // tie or unfinished
+                        int humanSide = entry.xPlayer().equals("Human") ? GameState.X : GameState.O;
+                        String opponent = humanSide == GameState.X ? entry.oPlayer() : entry.xPlayer();
+                        String key = scoreKey(entry.rows(), entry.cols(), entry.winLength(), opponent);
+                        recorded.computeIfAbsent(key, k -> new int[2])[entry.result() == humanSide ? 0 : 1]++;
+                    });
+                }
+                return recorded;
+            }
 
-        // Tie
-        if (turns == boardSize * boardSize) {
-            for (int row = 0; row < boardSize; row++) {
-                for (int col = 0; col < boardSize; col++)
-                    setTie(board[row][col]);
+            @Override
+            protected void done() {
+                try {
+                    get().forEach((key, wins) -> {
+                        int[] total = scores.computeIfAbsent(key, k -> new int[2]);
+                        total[0] += wins[0];
+                        total[1] += wins[1];
+                    });
+                    showScores();
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Could not read recorded games: " + e.getCause());
+                }
             }
-            textLabel.setText("Tie");
-            gameOver = true;
-            isTie = true;
-        }
+        }.execute();
     }
 
-    // Helper method to check a line in any direction
-    private boolean checkLine(int startRow, int startCol, int deltaRow, int deltaCol, int length) {
-        String firstVal = board[startRow][startCol].getText();
-        if (firstVal.isEmpty())
-            return false;
-
-        for (int i = 1; i < length; i++) {
-            int r = startRow + i * deltaRow;
-            int c = startCol + i * deltaCol;
-            if (!board[r][c].getText().equals(firstVal)) {
-                return false; // mismatch
-            }
-        }
+    private static String scoreKey(int rows, int cols, int winLength, String difficulty) {
+        return rows + "x" + cols + " k" + winLength + " " + difficulty;
+    }
 
-        // All matched → declare winner
-        for (int i = 0; i < length; i++) {
-            int r = startRow + i * deltaRow;
-            int c = startCol + i * deltaCol;
-            setWinner(board[r][c]);
-        }
-        gameOver = true;
-        return true;
+    // Wins {human, AI} with the current settings
+    private int[] currentScores() {
+        return scores.computeIfAbsent(scoreKey(rows, cols, gameSettings.winLength(), gameSettings.difficulty()), k -> new int[2]);
     }
 
-    private void setWinner(JButton tile) {
-        tile.setForeground(Color.green);
-        tile.setBackground(Color.gray);
-        textLabel.setText(currentPlayer + " wins!");
+    private void showScores() {
+        int[] wins = currentScores();
+        xScoreLabel.setText("Human: " + wins[0]);
+        oScoreLabel.setText("AI: " + wins[1]);
     }
 
-    private void setTie(JButton tile) {
-        tile.setForeground(Color.orange);
-        tile.setBackground(Color.gray);
+    // Update score if game ended with a winner
+    private void updateScore() {
+        int[] wins = currentScores();
+        if (game.getWinner() == GameState.player(human)) wins[0]++;
+        if (game.getWinner() == GameState.player(ai)) wins[1]++;
+        showScores();
     }
 
     // Reset game so it's clean next time
     private void resetGame() {
-        currentPlayer = gameSettings.playAs();
-        gameOver = false;
-        isTie = false;
-        turns = 0;
+        aiService.cancel();
+        latencyMonitor.stop();
+        if (game.turns() > 0 && !game.isOver()) saveGame(); // abandoned games are recorded too
+        game.reset();
+        startRecording();
         textLabel.setText("Tic-Tac-Toe");
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col < boardSize; col++) {
-                board[row][col].setText("");
-                board[row][col].setBackground(Color.darkGray);
-                board[row][col].setForeground(Color.white);
-            }
-        }
+        board.clear();
+        updateHistoryButtons();
     }
 
-    // Executes the AI's move based on the selected difficulty
+    // Starts the AI's move in the background; the board stays responsive meanwhile
     private void aiMove() {
-        List<int[]> emptyCells = getAvailbleBlocks();
-        MinimaxAI aiEngine = new MinimaxAI(ai, human, boardSize);
-
-        if (emptyCells.isEmpty())
-            return;
-
-        int row, col;
-
-        // Select move depending on difficulty
-        if (gameSettings.difficulty().equals("Hard")) {
-            // Use full-depth minimax
-            int[] bestMove = aiEngine.findBestMove(getBoardState());
-            row = bestMove[0];
-            col = bestMove[1];
-        } else if (gameSettings.difficulty().equals("Medium")) {
-            // Use minimax with depth limit (less "smart")
-            int[] bestMove = aiEngine.findBestMoveWithDepthLimit(getBoardState(), 2);
-            row = bestMove[0];
-            col = bestMove[1];
-        } else {
-            // Easy mode → pick random available cell
-            int[] move = emptyCells.get(new Random().nextInt(emptyCells.size()));
-            row = move[0];
-            col = move[1];
-        }
-
-        // Place AI's move on the board
-        JButton tile = board[row][col];
-        tile.setText(ai);
-        turns++;
-        checkWinner();
-
-        // If game not over → switch turn back to human
-        if (!gameOver) {
-            currentPlayer = human;
-            textLabel.setText(human + "'s turn");
-        }
+        textLabel.setText("AI is thinking...");
+        latencyMonitor.start();
+        lastStats = null; // set again by the search (or the pondered one) behind this move
+        aiService.requestMove(game, this::placeAiMove);
+        updateHistoryButtons();
     }
 
-    // Helper to get empty cells
-    private List<int[]> getAvailbleBlocks() {
-        List<int[]> emptyCells = new ArrayList<>();
+    // Called on the EDT once the AI has chosen its move
+    private void placeAiMove(int cell) {
+        latencyMonitor.stop();
+        if (REPORT_LATENCY) {
+            System.out.printf("AI move in %d ms%s, EDT lag max %.1f ms / avg %.2f ms over %d ticks%n",
+                    aiService.getLastSearchMillis(), aiService.wasPondered() ? " (pondered)" : "",
+                    latencyMonitor.getMaxLagMillis(),
+                    latencyMonitor.getAverageLagMillis(), latencyMonitor.getSamples());
+            if (aiService.getPlayoutsPerSecond() > 0)
+                System.out.printf("MCTS: %.0f playouts/s%n", aiService.getPlayoutsPerSecond());
+        }
 
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col < boardSize; col++) {
-                if (board[row][col].getText().isEmpty()) {
-                    emptyCells.add(new int[] { row, col });
-                }
-            }
+        if (statsLabel != null) {
+            if (lastStats != null) showStats(lastStats, aiService.wasPondered());
+            else statsLabel.setText(" "); // no search reported for this move
         }
-        return emptyCells;
-    }
 
-    // Helper to get the current state og the board
-    private String[][] getBoardState() {
-        String[][] state = new String[boardSize][boardSize];
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col < boardSize; col++) {
-                state[row][col] = board[row][col].getText();
-            }
+        // Place AI's move on the board
+        if (game.play(cell)) {
+            showMove(cell);
+            ponder();
         }
-        return state;
     }
 
 }
@@ -0,0 +1,145 @@
+package main.java.org.example;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixed-size hash table of search results, stored in two primitive arrays.
+ * Each slot keeps the full 64-bit Zobrist key and one packed long:
+ * value (16 bits) | draft (8) | bound (2) | best move (8) | generation (8).
+ *
+ * One table is shared by every engine of the same board size and win length,
+ * so results survive between moves and between games.
+ *
+ * The table is lock-free: the key is stored XOR-ed with the packed entry, so a slot
+ * half-written by another thread no longer matches its key and simply reads as a miss.
+ * The statistics counters are not synchronized and are approximate under parallel search.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1; // value is at least the stored one (beta cutoff)
+    public static final int UPPER_BOUND = 2; // value is at most the stored one (failed low)
+
+    public static final int NO_MOVE = -1;
+
+    private static final Map<Long, TranspositionTable> SHARED = new HashMap<>();
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private int generation;
+
+    // Statistics
+    private long hits;
+    private long misses;
+    private long collisions;
+    private long stores;
+
+    public TranspositionTable(int sizeBits) {
+        keys = new long[1 << sizeBits];
+        data = new long[1 << sizeBits];
+        mask = (1 << sizeBits) - 1;
+    }
+
+    // Returns the table shared by all engines playing this board size and win length
+    public static TranspositionTable shared(int boardSize, int winLength) {
+        return shared(boardSize, boardSize, winLength);
+    }
+
+    // Same for a rows x cols board (moves are stored in 8 bits, so at most 255 cells)
+    public static TranspositionTable shared(int rows, int cols, int winLength) {
+        synchronized (SHARED) {
+            return SHARED.computeIfAbsent((long) rows << 40 | (long) cols << 20 | winLength,
+                    k -> new TranspositionTable(rows * cols <= 9 ? 14 : 20));
+        }
+    }
+
+    // Marks the start of a new search; entries of older searches are replaced first
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Returns the packed entry for key, or 0 if there is none.
+     * Use the static accessors below to unpack it.
+     */
+    public long probe(long key) {
+        int slot = (int) key & mask;
+        long entry = data[slot];
+        if (entry != 0 && (keys[slot] ^ entry) == key) {
+            hits++;
+            return entry;
+        }
+        misses++;
+        if (entry != 0) collisions++;
+        return 0L;
+    }
+
+    // Stores a result; a slot holding a deeper result from the current search is kept
+    public void store(long key, int value, int draft, int bound, int move) {
+        int slot = (int) key & mask;
+        long old = data[slot];
+        if (old != 0 && (keys[slot] ^ old) != key && generation(old) == generation && draft(old) > draft)
+            return;
+        long entry = (value + 0x8000L)
+                | (long) Math.min(draft, 0xFF) << 16
+                | (long) bound << 24
+                | (long) (move + 1) << 26
+                | (long) generation << 34
+                | 1L << 42; // never 0, so 0 can mean "empty"
+        keys[slot] = key ^ entry;
+        data[slot] = entry;
+        stores++;
+    }
+
+    public static int value(long entry) {
+        return (int) (entry & 0xFFFF) - 0x8000;
+    }
+
+    public static int draft(long entry) {
+        return (int) (entry >>> 16) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 24) & 0x3;
+    }
+
+    public static int move(long entry) {
+        return ((int) (entry >>> 26) & 0xFF) - 1;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 34) & 0xFF;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        hits = misses = collisions = stores = 0;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    // Probes that found the slot taken by a different position
+    public long getCollisions() {
+        return collisions;
+    }
+
+    public long getStores() {
+        return stores;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+}
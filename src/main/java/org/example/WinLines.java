@@ -0,0 +1,70 @@
+package main.java.org.example;
+
+// Precomputed win-line bitmasks for a square board of a given size and win length.
+// Cell index = row * size + col, so a board of up to 8x8 fits in one long.
+public final class WinLines {
+    public static final int MAX_SIZE = 8;
+
+    private static final WinLines[][] CACHE = new WinLines[MAX_SIZE + 1][MAX_SIZE + 1];
+
+    final int size;
+    final int winLength;
+    final long[] lines; // every window of winLength aligned cells
+    final long[][] linesThrough; // per cell: the windows that contain it
+
+    private WinLines(int size, int winLength) {
+        this.size = size;
+        this.winLength = winLength;
+
+        int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+        long[] found = new long[4 * size * size];
+        int count = 0;
+        for (int[] d : directions) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int endRow = row + (winLength - 1) * d[0];
+                    int endCol = col + (winLength - 1) * d[1];
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size)
+                        continue;
+                    long mask = 0L;
+                    for (int k = 0; k < winLength; k++) {
+                        mask |= 1L << ((row + k * d[0]) * size + col + k * d[1]);
+                    }
+                    found[count++] = mask;
+                }
+            }
+        }
+        lines = java.util.Arrays.copyOf(found, count);
+
+        linesThrough = new long[size * size][];
+        for (int cell = 0; cell < size * size; cell++) {
+            int n = 0;
+            for (long line : lines) {
+                if ((line & (1L << cell)) != 0) n++;
+            }
+            linesThrough[cell] = new long[n];
+            n = 0;
+            for (long line : lines) {
+                if ((line & (1L << cell)) != 0) linesThrough[cell][n++] = line;
+            }
+        }
+    }
+
+    // Returns the shared (immutable) masks for this size and win length
+    public static WinLines of(int size, int winLength) {
+        if (size < 1 || size > MAX_SIZE || winLength < 1 || winLength > size)
+            throw new IllegalArgumentException("Unsupported board " + size + "x" + size + " / " + winLength);
+        synchronized (CACHE) {
+            WinLines cached = CACHE[size][winLength];
+            if (cached == null) {
+                cached = new WinLines(size, winLength);
+                CACHE[size][winLength] = cached;
+            }
+            return cached;
+        }
+    }
+
+    public int lineCount() {
+        return lines.length;
+    }
+}
@@ -0,0 +1,35 @@
+package main.java.org.example;
+
+import java.util.SplittableRandom;
+
+// Random keys for incremental position hashing: hash = XOR of keys[side][cell] over all stones,
+// XOR the side-to-move key when O is to move. Fixed seed, so hashes are stable across runs.
+public final class Zobrist {
+    private static final Zobrist[] CACHE = new Zobrist[MnkBoard.MAX_CELLS + 1];
+
+    final long[][] keys;
+    final long sideKey;
+
+    private Zobrist(int cells) {
+        SplittableRandom random = new SplittableRandom(0x5EEDL + cells);
+        keys = new long[2][cells];
+        for (int side = 0; side < 2; side++) {
+            for (int cell = 0; cell < cells; cell++) {
+                keys[side][cell] = random.nextLong();
+            }
+        }
+        sideKey = random.nextLong();
+    }
+
+    // Returns the shared keys for a board with the given number of cells
+    public static Zobrist of(int cells) {
+        synchronized (CACHE) {
+            Zobrist cached = CACHE[cells];
+            if (cached == null) {
+                cached = new Zobrist(cells);
+                CACHE[cells] = cached;
+            }
+            return cached;
+        }
+    }
+}